@@ -0,0 +1,82 @@
+package com.apirest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cold start of ApiRestApplication in a fresh JVM, up to a refreshed context, from
+ * the artifacts of the {@code fast-startup} Maven profile. Build them first and run the two
+ * profiles together: {@code mvn -Pfast-startup,benchmark -DskipTests verify
+ * "-Djmh.args=ApplicationStartupBenchmark"}.
+ * <ul>
+ *     <li>{@code jit}: plain classpath, reflective bean definitions and eager JPA bootstrap.</li>
+ *     <li>{@code aot}: AOT-generated bean definitions with the fast-startup Spring profile.</li>
+ *     <li>{@code aot-cds}: the same, with classes mapped from the AppCDS archive of the training run.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ApplicationStartupBenchmark {
+    private static final String MAIN_CLASS = "com.apirest.ApiRestApplication";
+
+    @Param({"jit", "aot", "aot-cds"})
+    private String mode;
+
+    private Path fastStartupDirectory;
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fastStartupDirectory = Path.of("target", "fast-startup").toAbsolutePath();
+        Path classpathFile = fastStartupDirectory.resolve("classpath");
+        if (!Files.exists(classpathFile)) {
+            throw new IllegalStateException("Missing " + classpathFile + ": build with the fast-startup Maven profile first");
+        }
+
+        String classpath;
+        try (var applicationJars = Files.list(fastStartupDirectory)) {
+            classpath = applicationJars
+                    .filter(path -> path.getFileName().toString().endsWith("-aot.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Missing application jar in " + fastStartupDirectory))
+                    .getFileName() + File.pathSeparator + Files.readString(classpathFile).trim();
+        }
+
+        command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        switch (mode) {
+            case "jit" -> {
+            }
+            case "aot" -> command.addAll(List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup"));
+            case "aot-cds" -> command.addAll(List.of("-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup"));
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        command.addAll(List.of("-Dspring.context.exit=onRefresh", "-Dspring.main.banner-mode=off",
+                "-Dlogging.level.root=WARN", "-cp", classpath, MAIN_CLASS));
+    }
+
+    @Benchmark
+    public int startToRefreshedContext() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .directory(fastStartupDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Application exited with " + exitCode + ": " + String.join(" ", command));
+        }
+        return exitCode;
+    }
+}
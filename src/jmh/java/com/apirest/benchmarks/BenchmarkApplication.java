@@ -0,0 +1,86 @@
+package com.apirest.benchmarks;
+
+import com.apirest.ApiRestApplication;
+import com.apirest.models.BulkRowResult;
+import com.apirest.models.BulkRowStatus;
+import com.apirest.models.UserEntity;
+import com.apirest.servicies.UserBulkService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+final class BenchmarkApplication {
+    private static final int SEED_CHUNK_SIZE = 10000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraProperties) {
+        return start(webApplicationType, new String[0], extraProperties);
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String[] profiles, String... extraProperties) {
+        // Repeated command-line keys are joined with commas, so extra properties replace the defaults by name.
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("server.port", "0");
+        // The load generators are a single client; RateLimiterContentionBenchmark covers the limiter itself.
+        properties.put("users.rate-limit.enabled", "false");
+        if (profiles.length == 0) {
+            // Command-line arguments outrank profile files, so profiles keep their own datasource.
+            properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID()
+                    + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;QUERY_CACHE_SIZE=${users.datasource.query-cache-size}");
+        }
+        for (String extraProperty : extraProperties) {
+            int separator = extraProperty.indexOf('=');
+            properties.put(extraProperty.substring(0, separator), extraProperty.substring(separator + 1));
+        }
+
+        String[] arguments = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ApiRestApplication.class)
+                .web(webApplicationType)
+                .profiles(profiles)
+                .run(arguments);
+    }
+
+    static long[] seedUsers(ConfigurableApplicationContext context, int count) {
+        UserBulkService userBulkService = context.getBean(UserBulkService.class);
+        long[] userIds = new long[count];
+        int seeded = 0;
+
+        while (seeded < count) {
+            int chunkSize = Math.min(SEED_CHUNK_SIZE, count - seeded);
+            List<UserEntity> chunk = new ArrayList<>(chunkSize);
+            for (int i = 0; i < chunkSize; i++) {
+                chunk.add(newUser(seeded + i));
+            }
+
+            for (BulkRowResult row : userBulkService.addUsers(chunk).getRows()) {
+                if (row.getStatus() != BulkRowStatus.CREATED) {
+                    throw new IllegalStateException("Could not seed user at row " + row.getIndex() + ": " + row.getMessage());
+                }
+                userIds[seeded++] = row.getUserId();
+            }
+        }
+
+        return userIds;
+    }
+
+    static UserEntity newUser(long sequence) {
+        return UserEntity.builder()
+                .firstName("First" + sequence)
+                .lastName("Last" + sequence)
+                .email("user" + sequence + "@example.com")
+                .build();
+    }
+}
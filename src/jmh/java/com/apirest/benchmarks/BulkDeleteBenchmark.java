@@ -0,0 +1,84 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserFilter;
+import com.apirest.servicies.UserBulkService;
+import com.apirest.servicies.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to empty a table of {@code tableSize} users, reseeded before every iteration.
+ * {@code perId} is the cleanup loop over {@code UserService.deleteUser} the bulk endpoints
+ * replace; {@code idList} and {@code filter} go through the chunked set-based statements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkDeleteBenchmark {
+    private static final int MAX_BULK_SIZE = 10000;
+
+    @Param({"perId", "idList", "filter"})
+    private String mode;
+
+    @Param({"100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserBulkService userBulkService;
+    private long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, "users.cache.maximum-size=0");
+        userService = context.getBean(UserService.class);
+        userBulkService = context.getBean(UserBulkService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void seed() {
+        userIds = BenchmarkApplication.seedUsers(context, tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int deleteAll() {
+        int affected = 0;
+        switch (mode) {
+            case "perId" -> {
+                for (long userId : userIds) {
+                    userService.deleteUser(userId);
+                    affected++;
+                }
+            }
+            case "idList" -> {
+                for (int from = 0; from < userIds.length; from += MAX_BULK_SIZE) {
+                    List<Long> idsChunk = new ArrayList<>(MAX_BULK_SIZE);
+                    for (int i = from; i < Math.min(from + MAX_BULK_SIZE, userIds.length); i++) {
+                        idsChunk.add(userIds[i]);
+                    }
+                    affected += userBulkService.deleteUsers(idsChunk, true).getAffected();
+                }
+            }
+            case "filter" -> affected = userBulkService.deleteUsersMatching(
+                    UserFilter.builder().emailDomain("example.com").build()).getAffected();
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        if (affected != userIds.length) {
+            throw new IllegalStateException("Deleted " + affected + " of " + userIds.length + " users");
+        }
+        return affected;
+    }
+}
@@ -0,0 +1,111 @@
+package com.apirest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweeps the Hikari pool size and the H2 statement cache against the read endpoints backed by
+ * {@code UserService}, with the users cache disabled so every request borrows a connection.
+ * Pick the smallest {@code poolSize} after which the score stops improving for the expected
+ * {@code concurrency}; the virtual-threads profile is the one that exposes the pool as the bulkhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConnectionPoolSweepBenchmark {
+    @Param({"2", "5", "10", "20", "50"})
+    private int poolSize;
+
+    @Param({"0", "64"})
+    private int queryCacheSize;
+
+    @Param({"lookup", "page", "search"})
+    private String endpoint;
+
+    @Param({"200"})
+    private int concurrency;
+
+    @Param({"true"})
+    private boolean virtualThreads;
+
+    @Param({"10000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "spring.datasource.hikari.minimum-idle=" + poolSize,
+                "spring.datasource.hikari.connection-timeout=30000",
+                "users.datasource.query-cache-size=" + queryCacheSize,
+                "server.tomcat.max-connections=10000",
+                "server.tomcat.accept-count=1000",
+                "users.cache.maximum-size=0");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/users";
+        userIds = BenchmarkApplication.seedUsers(context, tableSize);
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentRequests() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(nextUrl())).GET().build();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+
+        int failures = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() != 200) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private String nextUrl() {
+        int index = ThreadLocalRandom.current().nextInt(userIds.length);
+        return switch (endpoint) {
+            case "lookup" -> baseUrl + "/" + userIds[index];
+            case "page" -> baseUrl + "/summaries?limit=50";
+            case "search" -> baseUrl + "/search?lastNamePrefix=Last" + index + "&limit=10";
+            default -> throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.apirest.benchmarks;
+
+import com.apirest.controllers.GlobalExceptionHandler;
+import com.apirest.exceptions.InvalidUserIdException;
+import com.apirest.exceptions.UserNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the 404 and 400 paths from the throw site to the serialized problem detail, thrown
+ * from {@code depth} frames below the handler. Run with {@code -prof gc}: for the domain
+ * exceptions {@code gc.alloc.rate.norm} must not grow with {@code depth}, while the
+ * {@code stackTraceBaseline} (an ordinary exception with a captured stack) does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathAllocationBenchmark {
+    @Param({"16", "128"})
+    private int depth;
+
+    private ConfigurableApplicationContext context;
+    private GlobalExceptionHandler exceptionHandler;
+    private ObjectWriter problemWriter;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        exceptionHandler = context.getBean(GlobalExceptionHandler.class);
+        problemWriter = context.getBean(ObjectMapper.class).writerFor(ProblemDetail.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<ProblemDetail> notFound() throws IOException {
+        ResponseEntity<ProblemDetail> response;
+        try {
+            response = throwAtDepth(depth, 0);
+        } catch (UserNotFoundException ex) {
+            response = exceptionHandler.handlerUserNotFoundException(ex);
+        }
+        problemWriter.writeValue(OutputStream.nullOutputStream(), response.getBody());
+        return response;
+    }
+
+    @Benchmark
+    public ResponseEntity<ProblemDetail> invalidId() throws IOException {
+        ResponseEntity<ProblemDetail> response;
+        try {
+            response = throwAtDepth(depth, 1);
+        } catch (IllegalArgumentException ex) {
+            response = exceptionHandler.handleIllegalArgumentException(ex);
+        }
+        problemWriter.writeValue(OutputStream.nullOutputStream(), response.getBody());
+        return response;
+    }
+
+    @Benchmark
+    public ResponseEntity<ProblemDetail> stackTraceBaseline() throws IOException {
+        ResponseEntity<ProblemDetail> response;
+        try {
+            response = throwAtDepth(depth, 2);
+        } catch (IllegalStateException ex) {
+            response = exceptionHandler.handleGenericException(ex);
+        }
+        problemWriter.writeValue(OutputStream.nullOutputStream(), response.getBody());
+        return response;
+    }
+
+    private ResponseEntity<ProblemDetail> throwAtDepth(int remainingFrames, int kind) {
+        if (remainingFrames > 0) {
+            return throwAtDepth(remainingFrames - 1, kind);
+        }
+
+        long missingId = ++userId;
+        throw switch (kind) {
+            case 0 -> new UserNotFoundException(missingId);
+            case 1 -> new InvalidUserIdException(-missingId);
+            default -> new IllegalStateException("User with ID: " + missingId + " not found.");
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.apirest.benchmarks;
+
+import com.apirest.servicies.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cold restart of the application on the prod profile's file-backed H2 database.
+ * The score should stay flat as {@code tableSize} grows: opening the MVStore reads only the
+ * latest chunk, Flyway reads its history table and Hibernate validates metadata, so no users
+ * are read until the first lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FileDatabaseStartupBenchmark {
+    @Param({"0", "100000"})
+    private int tableSize;
+
+    private Path dataDirectory;
+    private long[] userIds;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("users-startup-bench");
+        try (ConfigurableApplicationContext seedContext = start()) {
+            userIds = BenchmarkApplication.seedUsers(seedContext, tableSize);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeContext() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDirectory);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext restart() {
+        context = start();
+        return context;
+    }
+
+    @Benchmark
+    public Object restartAndFirstLookup() {
+        context = start();
+        return userIds.length == 0 ? null : context.getBean(UserService.class).getUserById(userIds[userIds.length / 2]);
+    }
+
+    private ConfigurableApplicationContext start() {
+        return BenchmarkApplication.start(WebApplicationType.NONE, new String[]{"prod"},
+                "users.datasource.path=" + dataDirectory.resolve("users"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserEntity;
+import com.apirest.servicies.UserBulkService;
+import com.apirest.servicies.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Steady-state write throughput on the prod profile's file-backed H2 database, sweeping the
+ * MVStore settings that profile tunes. {@code writeDelay=0} commits every transaction to disk
+ * immediately and is the baseline the delayed settings are compared against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FileDatabaseWriteBenchmark {
+    private static final int BULK_SIZE = 100;
+
+    @Param({"0", "500"})
+    private int writeDelay;
+
+    @Param({"16384", "65536"})
+    private int cacheSize;
+
+    @Param({"100000"})
+    private int tableSize;
+
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserBulkService userBulkService;
+    private long[] userIds;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("users-write-bench");
+        context = BenchmarkApplication.start(WebApplicationType.NONE, new String[]{"prod"},
+                "spring.datasource.url=jdbc:h2:file:" + dataDirectory.resolve("users")
+                        + ";CACHE_SIZE=" + cacheSize + ";WRITE_DELAY=" + writeDelay + ";MAX_COMPACT_TIME=200",
+                "users.cache.maximum-size=0");
+        userService = context.getBean(UserService.class);
+        userBulkService = context.getBean(UserBulkService.class);
+        userIds = BenchmarkApplication.seedUsers(context, tableSize);
+        sequence.set(tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDirectory);
+    }
+
+    @Benchmark
+    public UserEntity insertOne() {
+        UserEntity user = BenchmarkApplication.newUser(sequence.getAndIncrement());
+        userService.addUser(user);
+        return user;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public Object insertBulk() {
+        List<UserEntity> users = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            users.add(BenchmarkApplication.newUser(sequence.getAndIncrement()));
+        }
+        return userBulkService.addUsers(users);
+    }
+
+    @Benchmark
+    public long updateOne() {
+        long userId = userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+        long suffix = sequence.getAndIncrement();
+        userService.updateUserById(userId, UserEntity.builder()
+                .firstName("First" + suffix)
+                .lastName("Last" + suffix)
+                .email("updated" + suffix + "@example.com")
+                .build());
+        return userId;
+    }
+}
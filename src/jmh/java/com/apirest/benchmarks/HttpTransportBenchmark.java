@@ -0,0 +1,105 @@
+package com.apirest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the full listing and of {@code concurrency} simultaneous lookups with response
+ * compression and HTTP/2 (h2c) switched on and off. The client asks for gzip and does not inflate,
+ * so the bytes printed per trial are the bytes on the wire. Over HTTP/2 the lookups share one
+ * multiplexed connection; over HTTP/1.1 the client opens a connection per in-flight request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HttpTransportBenchmark {
+    @Param({"false", "true"})
+    private boolean compression;
+
+    @Param({"false", "true"})
+    private boolean http2;
+
+    @Param({"64"})
+    private int concurrency;
+
+    @Param({"10000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "server.compression.enabled=" + compression,
+                "server.http2.enabled=" + http2,
+                "users.cache.maximum-size=0");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/users";
+        userIds = BenchmarkApplication.seedUsers(context, tableSize);
+        httpClient = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .build();
+
+        HttpResponse<byte[]> list = httpClient.send(request(baseUrl), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> lookup = httpClient.send(request(baseUrl + "/" + userIds[0]), HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("compression=%s %s: list %d bytes, lookup %d bytes%n", compression, list.version(),
+                list.body().length, lookup.body().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int listUsers() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request(baseUrl), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("List failed with status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    @Benchmark
+    public int concurrentLookups() {
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long userId = userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+            responses.add(httpClient.sendAsync(request(baseUrl + "/" + userId), HttpResponse.BodyHandlers.ofByteArray()));
+        }
+
+        int bytes = 0;
+        for (CompletableFuture<HttpResponse<byte[]>> response : responses) {
+            HttpResponse<byte[]> lookup = response.join();
+            if (lookup.statusCode() != 200) {
+                throw new IllegalStateException("Lookup failed with status " + lookup.statusCode());
+            }
+            bytes += lookup.body().length;
+        }
+        return bytes;
+    }
+
+    private static HttpRequest request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Accept-Encoding", "gzip").GET().build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.apirest.benchmarks;
+
+import com.apirest.controllers.UserController;
+import com.apirest.ratelimit.GcraRateLimiter;
+import com.apirest.ratelimit.RateLimitInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-request cost of the rate limiter with 64 threads. {@code sharedClient} makes every thread
+ * CAS the same client's arrival time, the worst case for contention; {@code distinctClients}
+ * gives each thread its own client. {@code preHandle} adds the interceptor's limiter lookup and
+ * client header read. Limits are high enough that every request is admitted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class RateLimiterContentionBenchmark {
+    private static final AtomicInteger CLIENT_SEQUENCE = new AtomicInteger();
+
+    private GcraRateLimiter rateLimiter;
+    private RateLimitInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @State(Scope.Thread)
+    public static class Client {
+        private String clientId;
+        private MockHttpServletRequest request;
+        private MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            clientId = "client-" + CLIENT_SEQUENCE.incrementAndGet();
+            request = new MockHttpServletRequest("GET", "/api/users/1");
+            request.addHeader("X-Client-Id", clientId);
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{userId}");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        rateLimiter = new GcraRateLimiter(1e9, 1_000_000, 100_000, Duration.ofMinutes(10));
+        interceptor = new RateLimitInterceptor("X-Client-Id", "1e9/1000000", new String[0], 100_000, Duration.ofMinutes(10));
+        handler = new HandlerMethod(new UserController(), UserController.class.getMethod("getUserById", Long.class));
+    }
+
+    @Benchmark
+    public long sharedClient() {
+        return rateLimiter.tryAcquire("shared");
+    }
+
+    @Benchmark
+    public long distinctClients(Client client) {
+        return rateLimiter.tryAcquire(client.clientId);
+    }
+
+    @Benchmark
+    public boolean preHandle(Client client) {
+        return interceptor.preHandle(client.request, client.response, handler);
+    }
+}
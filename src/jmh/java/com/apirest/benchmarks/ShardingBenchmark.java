@@ -0,0 +1,84 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserEntity;
+import com.apirest.servicies.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service throughput of the sharded profile over {@code shards} file-backed H2 databases with
+ * 16 client threads: creates, lookups by id and first pages, which fan out to every shard.
+ * {@code shards=1} is the routing overhead baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class ShardingBenchmark {
+    private static final AtomicLong USER_SEQUENCE = new AtomicLong();
+
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+
+    @Param({"10000"})
+    private int tableSize;
+
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("users-sharding-bench");
+        context = BenchmarkApplication.start(WebApplicationType.NONE, new String[]{"sharded"},
+                "users.sharding.count=" + shards,
+                "users.sharding.url=jdbc:h2:file:" + dataDirectory.resolve("users-shard-{shard}")
+                        + ";CACHE_SIZE=65536;WRITE_DELAY=500;QUERY_CACHE_SIZE=${users.datasource.query-cache-size}",
+                "users.cache.maximum-size=0");
+        userService = context.getBean(UserService.class);
+
+        // Bulk inserts are not available when sharded, so the table is seeded one user at a time.
+        userIds = new long[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            UserEntity user = BenchmarkApplication.newUser(USER_SEQUENCE.getAndIncrement());
+            userService.addUser(user);
+            userIds[i] = user.getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDirectory);
+    }
+
+    @Benchmark
+    public Long addUser() {
+        UserEntity user = BenchmarkApplication.newUser(USER_SEQUENCE.getAndIncrement());
+        userService.addUser(user);
+        return user.getId();
+    }
+
+    @Benchmark
+    public UserEntity getUserById() {
+        return userService.getUserById(userIds[ThreadLocalRandom.current().nextInt(userIds.length)]);
+    }
+
+    @Benchmark
+    public int getFirstPage() {
+        return userService.getUsersPage(null, UserService.DEFAULT_PAGE_SIZE).getUsers().size();
+    }
+}
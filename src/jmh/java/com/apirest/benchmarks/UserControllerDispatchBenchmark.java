@@ -0,0 +1,76 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserControllerDispatchBenchmark {
+    @Param({"10000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+    private long[] userIds;
+    private final AtomicLong newUserSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        objectMapper = context.getBean(ObjectMapper.class);
+        userIds = BenchmarkApplication.seedUsers(context, tableSize);
+        newUserSequence.set(tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getUserById() throws Exception {
+        long userId = userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+        return mockMvc.perform(get("/api/users/{userId}", userId)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getMissingUser() throws Exception {
+        long userId = newUserSequence.get() + 1_000_000L + ThreadLocalRandom.current().nextInt(tableSize);
+        return mockMvc.perform(get("/api/users/{userId}", userId)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getUsersPage() throws Exception {
+        return mockMvc.perform(get("/api/users/page").param("limit", "100")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createUser() throws Exception {
+        UserEntity userToCreate = BenchmarkApplication.newUser(newUserSequence.getAndIncrement());
+        return mockMvc.perform(post("/api/users/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(userToCreate)))
+                .andReturn();
+    }
+}
@@ -0,0 +1,66 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserEntity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserEntityJsonBenchmark {
+    private static final TypeReference<List<UserEntity>> USER_LIST_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "1000"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private UserEntity user;
+    private byte[] userJson;
+    private List<UserEntity> users;
+    private byte[] usersJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        user = BenchmarkApplication.newUser(1);
+        user.setId(1L);
+        userJson = objectMapper.writeValueAsBytes(user);
+
+        users = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            UserEntity listUser = BenchmarkApplication.newUser(i);
+            listUser.setId((long) i + 1);
+            users.add(listUser);
+        }
+        usersJson = objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public UserEntity deserializeUser() throws Exception {
+        return objectMapper.readValue(userJson, UserEntity.class);
+    }
+
+    @Benchmark
+    public byte[] serializeUserList() throws Exception {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<UserEntity> deserializeUserList() throws Exception {
+        return objectMapper.readValue(usersJson, USER_LIST_TYPE);
+    }
+}
@@ -0,0 +1,51 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserEntity;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserEntityValidationBenchmark {
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private UserEntity validUser;
+    private UserEntity invalidUser;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validUser = BenchmarkApplication.newUser(1);
+        invalidUser = UserEntity.builder()
+                .firstName("")
+                .lastName("")
+                .email("john.doe")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserEntity>> validateValidUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserEntity>> validateInvalidUser() {
+        return validator.validate(invalidUser);
+    }
+}
@@ -0,0 +1,57 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserEntity;
+import com.apirest.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepositoryBenchmark {
+    @Param({"1000", "100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private long[] userIds;
+    private final AtomicLong newUserSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        userRepository = context.getBean(UserRepository.class);
+        userIds = BenchmarkApplication.seedUsers(context, tableSize);
+        newUserSequence.set(tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<UserEntity> findById() {
+        return userRepository.findById(userIds[ThreadLocalRandom.current().nextInt(userIds.length)]);
+    }
+
+    @Benchmark
+    public List<UserEntity> findAll() {
+        return userRepository.findAll();
+    }
+
+    @Benchmark
+    public UserEntity save() {
+        return userRepository.save(BenchmarkApplication.newUser(newUserSequence.getAndIncrement()));
+    }
+}
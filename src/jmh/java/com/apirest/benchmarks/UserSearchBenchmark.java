@@ -0,0 +1,66 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserEntity;
+import com.apirest.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of the indexed search queries as the table grows. Run with
+ * {@code -p tableSize=10000000} to reproduce the 10M-row data point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class UserSearchBenchmark {
+    private static final Limit SEARCH_LIMIT = Limit.of(50);
+
+    @Param({"10000", "100000", "1000000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        userRepository = context.getBean(UserRepository.class);
+        BenchmarkApplication.seedUsers(context, tableSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<UserEntity> findByEmail() {
+        return userRepository.findByEmail("user" + randomSequence() + "@example.com");
+    }
+
+    @Benchmark
+    public List<UserEntity> findByLastNamePrefix() {
+        return userRepository.findByLastNameStartingWithOrderByLastNameAscFirstNameAscIdAsc(
+                "Last" + randomSequence(), SEARCH_LIMIT);
+    }
+
+    @Benchmark
+    public List<UserEntity> findByFirstAndLastName() {
+        long sequence = randomSequence();
+        return userRepository.findByFirstNameAndLastNameOrderByIdAsc("First" + sequence, "Last" + sequence, SEARCH_LIMIT);
+    }
+
+    private long randomSequence() {
+        return ThreadLocalRandom.current().nextInt(tableSize);
+    }
+}
@@ -0,0 +1,137 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserFilter;
+import com.apirest.servicies.UserBulkService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-table export through {@code GET /api/users/stream} and reload through
+ * {@code POST /api/users/import} against the prod profile's file database, so a table of
+ * {@code tableSize} rows does not have to fit in the heap. Rows per second is
+ * {@code tableSize / score} for the export and {@code importSize / score} for the import.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class UserTransferBenchmark {
+    private static final String IMPORT_DOMAIN = "import.example.com";
+
+    @Param({"csv", "ndjson"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"10000000"})
+    private int tableSize;
+
+    @Param({"1000000"})
+    private int importSize;
+
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+    private UserBulkService userBulkService;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private byte[] importBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("users-transfer-bench");
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET, new String[]{"prod"},
+                "users.datasource.path=" + dataDirectory.resolve("users"),
+                "users.cache.maximum-size=0");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/users";
+        userBulkService = context.getBean(UserBulkService.class);
+        BenchmarkApplication.seedUsers(context, tableSize);
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        importBody = importBody();
+    }
+
+    @Setup(Level.Iteration)
+    public void deleteImportedUsers() {
+        userBulkService.deleteUsersMatching(UserFilter.builder().emailDomain(IMPORT_DOMAIN).build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDirectory);
+    }
+
+    @Benchmark
+    public long export() throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/stream?format=" + format)).GET();
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+
+        HttpResponse<Long> response = httpClient.send(request.build(), responseInfo -> HttpResponse.BodySubscribers
+                .mapping(HttpResponse.BodySubscribers.ofInputStream(), body -> {
+                    try (body) {
+                        return body.transferTo(OutputStream.nullOutputStream());
+                    } catch (IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Export failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    @Benchmark
+    public String importAll() throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/import?format=" + format))
+                .header("Content-Type", format.equals("csv") ? "text/csv" : "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(importBody));
+        if (gzip) {
+            request.header("Content-Encoding", "gzip");
+        }
+
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 || !response.body().contains("\"imported\":" + importSize + ",")) {
+            throw new IllegalStateException("Import failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private byte[] importBody() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (OutputStream rows = gzip ? new GZIPOutputStream(body, 64 * 1024) : body) {
+            if (format.equals("csv")) {
+                rows.write("firstName,lastName,email\n".getBytes(StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < importSize; i++) {
+                String row = format.equals("csv")
+                        ? "First" + i + ",Last" + i + ",user" + i + "@" + IMPORT_DOMAIN + "\n"
+                        : "{\"firstName\":\"First" + i + "\",\"lastName\":\"Last" + i
+                                + "\",\"email\":\"user" + i + "@" + IMPORT_DOMAIN + "\"}\n";
+                rows.write(row.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return body.toByteArray();
+    }
+}
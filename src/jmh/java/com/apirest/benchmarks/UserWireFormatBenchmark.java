@@ -0,0 +1,68 @@
+package com.apirest.benchmarks;
+
+import com.apirest.models.UserEntity;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON path of {@link UserEntityJsonBenchmark} against the CBOR and Smile encodings offered
+ * by content negotiation. Nanoseconds per user is {@code score / listSize}; the encoded size of
+ * each list is printed per trial as bytes per user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserWireFormatBenchmark {
+    private static final TypeReference<List<UserEntity>> USER_LIST_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1", "100", "1000"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<UserEntity> users;
+    private byte[] encodedUsers;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+
+        users = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            UserEntity user = BenchmarkApplication.newUser(i);
+            user.setId((long) i + 1);
+            user.setVersion(0L);
+            users.add(user);
+        }
+        encodedUsers = objectMapper.writeValueAsBytes(users);
+        System.out.printf("%s, %d users: %.1f bytes/user%n", format, listSize, (double) encodedUsers.length / listSize);
+    }
+
+    @Benchmark
+    public byte[] serializeUserList() throws Exception {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<UserEntity> deserializeUserList() throws Exception {
+        return objectMapper.readValue(encodedUsers, USER_LIST_TYPE);
+    }
+}
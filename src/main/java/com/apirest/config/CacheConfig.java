@@ -0,0 +1,33 @@
+package com.apirest.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS_CACHE = "users";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${users.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${users.cache.time-to-live:10m}") Duration timeToLive) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(USERS_CACHE);
+        caffeineCacheManager.setAllowNullValues(false);
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats());
+
+        // Evictions issued inside a transaction are applied only after it commits,
+        // so a concurrent reader cannot re-cache the row we are about to change.
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
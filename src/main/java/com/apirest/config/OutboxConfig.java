@@ -0,0 +1,40 @@
+package com.apirest.config;
+
+import com.apirest.outbox.LoggingUserChangeSink;
+import com.apirest.outbox.UserChangeRelay;
+import com.apirest.outbox.UserChangeSink;
+import com.apirest.repositories.UserChangeRepository;
+import com.apirest.servicies.UserChangeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class OutboxConfig {
+    @Value("${users.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${users.outbox.relay-interval:100ms}")
+    private Duration relayInterval;
+
+    @Value("${users.outbox.retention:7d}")
+    private Duration retention;
+
+    @Value("${users.outbox.prune-interval:1h}")
+    private Duration pruneInterval;
+
+    // Changes go to the UserChangeSink bean when there is one, and to the log otherwise.
+    @Bean
+    public UserChangeRelay userChangeRelay(UserChangeService userChangeService, UserChangeRepository userChangeRepository,
+                                           ObjectProvider<UserChangeSink> userChangeSink,
+                                           TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        return new UserChangeRelay(userChangeRepository, userChangeSink.getIfAvailable(LoggingUserChangeSink::new),
+                transactionTemplate, meterRegistry, userChangeService.isEnabled(),
+                batchSize, relayInterval, retention, pruneInterval);
+    }
+}
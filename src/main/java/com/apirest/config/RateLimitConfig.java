@@ -0,0 +1,38 @@
+package com.apirest.config;
+
+import com.apirest.ratelimit.RateLimitInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class RateLimitConfig implements WebMvcConfigurer {
+    @Value("${users.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${users.rate-limit.client-header:}")
+    private String clientHeader;
+
+    @Value("${users.rate-limit.default:200/400}")
+    private String defaultLimit;
+
+    @Value("${users.rate-limit.routes:}")
+    private String[] routeLimits;
+
+    @Value("${users.rate-limit.max-clients:100000}")
+    private long maxClients;
+
+    @Value("${users.rate-limit.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new RateLimitInterceptor(clientHeader, defaultLimit, routeLimits, maxClients, idleTimeout))
+                    .addPathPatterns("/api/users/**");
+        }
+    }
+}
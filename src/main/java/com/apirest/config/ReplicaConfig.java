@@ -0,0 +1,120 @@
+package com.apirest.config;
+
+import com.apirest.replication.ReadReplicas;
+import com.apirest.replication.ReadYourWritesInterceptor;
+import com.apirest.replication.ReadYourWritesTracker;
+import com.apirest.replication.ReplicaRoutingDataSource;
+import com.apirest.replication.ReplicaSynchronizer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "users.replicas.enabled", havingValue = "true")
+public class ReplicaConfig implements WebMvcConfigurer {
+    @Value("${users.replicas.urls}")
+    private String[] urls;
+
+    @Value("${spring.datasource.username:sa}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Value("${users.sharding.enabled:false}")
+    private boolean shardingEnabled;
+
+    @Value("${users.replicas.read-your-writes-window:2s}")
+    private Duration readYourWritesWindow;
+
+    @Value("${users.replicas.read-your-writes-max-clients:100000}")
+    private long readYourWritesMaxClients;
+
+    @Value("${users.rate-limit.client-header:}")
+    private String clientHeader;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        if (shardingEnabled) {
+            throw new IllegalStateException("Read replicas cannot be combined with sharding");
+        }
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicas readReplicas(@Value("${users.replicas.maximum-pool-size:10}") int maximumPoolSize) {
+        List<HikariDataSource> dataSources = new ArrayList<>(urls.length);
+        for (int replica = 0; replica < urls.length; replica++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls[replica].trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName("users-replica-" + replica);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            dataSources.add(dataSource);
+        }
+        return new ReadReplicas(dataSources);
+    }
+
+    // Transactions start without a connection. Read-only ones have marked it read-only by their
+    // first statement, and only those get a connection of a replica; everything else uses the primary.
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicas readReplicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primaryDataSource, readReplicas));
+        return dataSource;
+    }
+
+    @Bean
+    public FlywayMigrationStrategy replicaMigrationStrategy(ReadReplicas readReplicas) {
+        return flyway -> {
+            flyway.migrate();
+            for (DataSource replica : readReplicas.getDataSources()) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(replica)
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    // Nothing read from a replica is cached (see UserService.isReadingReplica), so catching up
+    // leaves no cache entries to drop.
+    @Bean
+    public ReplicaSynchronizer replicaSynchronizer(HikariDataSource primaryDataSource, ReadReplicas readReplicas,
+                                                   @Value("${users.replicas.sync-interval:100ms}") Duration syncInterval) {
+        return new ReplicaSynchronizer(primaryDataSource, readReplicas.getDataSources(), syncInterval);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(readYourWritesWindow, readYourWritesMaxClients);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesTracker(), clientHeader))
+                .addPathPatterns("/api/users/**");
+    }
+}
@@ -0,0 +1,95 @@
+package com.apirest.config;
+
+import com.apirest.servicies.ShardedUserService;
+import com.apirest.sharding.ShardRoutingDataSource;
+import com.apirest.sharding.UserEmailDirectory;
+import com.apirest.sharding.UserIdAllocator;
+import com.apirest.sharding.UserShards;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "users.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+    @Value("${users.sharding.count:4}")
+    private int shardCount;
+
+    @Value("${users.sharding.url}")
+    private String urlTemplate;
+
+    @Value("${spring.datasource.username:sa}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Bean
+    public UserShards userShards(@Value("${users.sharding.maximum-pool-size:10}") int maximumPoolSize) {
+        return new UserShards(shardPools("users-shard-", maximumPoolSize));
+    }
+
+    // Transactions start without a connection and take one from the shard selected when their
+    // first statement runs, not from whichever shard was selected when they began.
+    @Bean
+    public DataSource dataSource(UserShards userShards) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(userShards));
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(UserShards userShards) {
+        return flyway -> {
+            for (int shard = 0; shard < userShards.size(); shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(userShards.getDataSource(shard))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    @Bean
+    public UserIdAllocator userIdAllocator(UserShards userShards) {
+        return new UserIdAllocator(userShards.getDataSource(0));
+    }
+
+    @Bean
+    public UserEmailDirectory userEmailDirectory(UserShards userShards,
+                                                 @Value("${users.sharding.directory-pool-size:4}") int directoryPoolSize) {
+        return new UserEmailDirectory(userShards, shardPools("users-emails-", directoryPoolSize));
+    }
+
+    @Bean
+    @Primary
+    public ShardedUserService shardedUserService() {
+        return new ShardedUserService();
+    }
+
+    private List<HikariDataSource> shardPools(String poolNamePrefix, int maximumPoolSize) {
+        List<HikariDataSource> dataSources = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urlTemplate.replace("{shard}", Integer.toString(shard)))
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName(poolNamePrefix + shard);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            dataSources.add(dataSource);
+        }
+        return dataSources;
+    }
+}
@@ -0,0 +1,22 @@
+package com.apirest.config;
+
+import com.apirest.models.UserEntity;
+import com.apirest.singleflight.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class SingleFlightConfig {
+    @Bean
+    public SingleFlight<Long, UserEntity> userByIdFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("user-by-id", meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<String, List<UserEntity>> allUsersFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("all-users", meterRegistry);
+    }
+}
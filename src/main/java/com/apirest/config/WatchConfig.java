@@ -0,0 +1,33 @@
+package com.apirest.config;
+
+import com.apirest.watch.UserWatchHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class WatchConfig {
+    @Value("${users.watch.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${users.watch.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${users.watch.max-ids:1000}")
+    private int maxUserIds;
+
+    @Value("${users.watch.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${users.watch.heartbeat-interval:30s}")
+    private Duration heartbeatInterval;
+
+    @Bean
+    public UserWatchHub userWatchHub(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new UserWatchHub(objectMapper, meterRegistry, bufferSize, maxSubscribers, maxUserIds, timeout, heartbeatInterval);
+    }
+}
@@ -1,50 +1,123 @@
 package com.apirest.controllers;
 
 import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.exceptions.IngestionQueueFullException;
+import com.apirest.exceptions.RateLimitExceededException;
+import com.apirest.exceptions.UnsupportedUserOperationException;
 import com.apirest.exceptions.UserNotFoundException;
-import com.apirest.models.CustomErrorResponse;
-import jakarta.servlet.http.HttpServletRequest;
+import com.apirest.exceptions.UserVersionMismatchException;
+import com.apirest.exceptions.WatchLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Errors are rendered as RFC 7807 problem details; Spring fills in "instance" from the request path.
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<CustomErrorResponse> handleGenericException(Exception ex, HttpServletRequest request) {
-        CustomErrorResponse errorResponse = new CustomErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Internal Server Error",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    public ResponseEntity<ProblemDetail> handleGenericException(Exception ex) {
+        countError("handleGenericException", ex);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", ex.getMessage());
     }
 
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<CustomErrorResponse> handlerUserNotFoundException(UserNotFoundException ex, HttpServletRequest request) {
-        CustomErrorResponse errorResponse = new CustomErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.NOT_FOUND.value(),
-                HttpStatus.NOT_FOUND.getReasonPhrase(),
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    public ResponseEntity<ProblemDetail> handlerUserNotFoundException(UserNotFoundException ex) {
+        countError("handlerUserNotFoundException", ex);
+        return problem(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.getReasonPhrase(), ex.getMessage());
+    }
+
+    @ExceptionHandler(UserVersionMismatchException.class)
+    public ResponseEntity<ProblemDetail> handleUserVersionMismatchException(UserVersionMismatchException ex) {
+        countError("handleUserVersionMismatchException", ex);
+        return problem(HttpStatus.PRECONDITION_FAILED, HttpStatus.PRECONDITION_FAILED.getReasonPhrase(), ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ProblemDetail> handleIllegalArgumentException(IllegalArgumentException ex) {
+        countError("handleIllegalArgumentException", ex);
+        return problem(HttpStatus.BAD_REQUEST, HttpStatus.BAD_REQUEST.getReasonPhrase(), ex.getMessage());
+    }
+
+    @ExceptionHandler(UnsupportedUserOperationException.class)
+    public ResponseEntity<ProblemDetail> handleUnsupportedUserOperationException(UnsupportedUserOperationException ex) {
+        countError("handleUnsupportedUserOperationException", ex);
+        return problem(HttpStatus.NOT_IMPLEMENTED, HttpStatus.NOT_IMPLEMENTED.getReasonPhrase(), ex.getMessage());
     }
 
     @ExceptionHandler(DataBaseErrorException.class)
-    public ResponseEntity<CustomErrorResponse> handleDatabaseErrorException(DataBaseErrorException ex, HttpServletRequest request) {
-        CustomErrorResponse errorResponse = new CustomErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Database Error",
-                ex.getMessage(),
-                request.getRequestURI());
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    public ResponseEntity<ProblemDetail> handleDatabaseErrorException(DataBaseErrorException ex) {
+        countError("handleDatabaseErrorException", ex);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "Database Error", ex.getMessage());
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ProblemDetail> handleCannotCreateTransactionException(CannotCreateTransactionException ex) {
+        countError("handleCannotCreateTransactionException", ex);
+        return retryLater(problemDetail(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "No database connection available, please retry later"));
+    }
+
+    @ExceptionHandler(IngestionQueueFullException.class)
+    public ResponseEntity<ProblemDetail> handleIngestionQueueFullException(IngestionQueueFullException ex) {
+        countError("handleIngestionQueueFullException", ex);
+        return retryLater(problemDetail(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.getMessage()));
+    }
+
+    @ExceptionHandler(WatchLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleWatchLimitExceededException(WatchLimitExceededException ex) {
+        countError("handleWatchLimitExceededException", ex);
+        return retryLater(problemDetail(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                ex.getMessage()));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleRateLimitExceededException(RateLimitExceededException ex) {
+        countError("handleRateLimitExceededException", ex);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(problemDetail(HttpStatus.TOO_MANY_REQUESTS, HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(), ex.getMessage()));
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, String title, String detail) {
+        return ResponseEntity.status(status).body(problemDetail(status, title, detail));
+    }
+
+    private static ProblemDetail problemDetail(HttpStatus status, String title, String detail) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle(title);
+        return problemDetail;
+    }
+
+    private static ResponseEntity<ProblemDetail> retryLater(ProblemDetail problemDetail) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problemDetail);
+    }
+
+    // Each exception type always lands on the same handler, so its counter is resolved once
+    // instead of building a meter id on every error.
+    private void countError(String handler, Exception ex) {
+        Counter counter = errorCounters.get(ex.getClass());
+        if (counter == null) {
+            counter = errorCounters.computeIfAbsent(ex.getClass(), exceptionType ->
+                    meterRegistry.counter("users.errors", "handler", handler, "exception", exceptionType.getSimpleName()));
+        }
+        counter.increment();
     }
 }
@@ -1,40 +1,332 @@
 package com.apirest.controllers;
 
+import com.apirest.models.BulkChangeRequest;
+import com.apirest.models.BulkChangeResult;
+import com.apirest.models.BulkCreateResult;
+import com.apirest.models.IngestionTicket;
+import com.apirest.models.UserCollectionVersion;
 import com.apirest.models.UserEntity;
+import com.apirest.models.UserImportResult;
+import com.apirest.models.UserPage;
+import com.apirest.models.UserSummary;
+import com.apirest.models.UserViewPage;
+import com.apirest.servicies.UserBulkService;
+import com.apirest.servicies.UserChangeService;
+import com.apirest.servicies.UserIngestionService;
 import com.apirest.servicies.UserService;
+import com.apirest.watch.UserWatchHub;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final String GZIP = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("firstName")
+            .addColumn("lastName")
+            .addColumn("email")
+            .addColumn("version")
+            .setUseHeader(true)
+            .build();
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private UserIngestionService userIngestionService;
+
+    @Autowired
+    private UserChangeService userChangeService;
+
+    @Autowired
+    private UserWatchHub userWatchHub;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${users.stream.flush-rows:1000}")
+    private int streamFlushRows = 1000;
+
     @PostMapping("/create")
-    public ResponseEntity<String> createUser(@RequestBody UserEntity userToCreate) {
+    public ResponseEntity<?> createUser(@RequestBody UserEntity userToCreate) {
+        if (userIngestionService.isEnabled()) {
+            IngestionTicket ingestionTicket = userIngestionService.submit(userToCreate);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/users/ingestion/" + ingestionTicket.getTrackingId()))
+                    .body(ingestionTicket);
+        }
+
         userService.addUser(userToCreate);
         return ResponseEntity.ok("User created successfully");
     }
 
+    @GetMapping("/ingestion/{trackingId}")
+    public ResponseEntity<IngestionTicket> getIngestionTicket(@PathVariable String trackingId) {
+        return ResponseEntity.of(userIngestionService.getTicket(trackingId));
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateResult> createUsers(@RequestBody List<UserEntity> usersToCreate) {
+        BulkCreateResult bulkCreateResult = userBulkService.addUsers(usersToCreate);
+        return ResponseEntity.ok(bulkCreateResult);
+    }
+
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkChangeResult> deleteUsers(@RequestBody BulkChangeRequest bulkChangeRequest) {
+        BulkChangeResult bulkChangeResult = isFilterRequest(bulkChangeRequest)
+                ? userBulkService.deleteUsersMatching(bulkChangeRequest.getFilter())
+                : userBulkService.deleteUsers(bulkChangeRequest.getIds(), bulkChangeRequest.isAllOrNothing());
+        return ResponseEntity.ok(bulkChangeResult);
+    }
+
+    @PostMapping("/bulk-update")
+    public ResponseEntity<BulkChangeResult> updateUsers(@RequestBody BulkChangeRequest bulkChangeRequest) {
+        BulkChangeResult bulkChangeResult = isFilterRequest(bulkChangeRequest)
+                ? userBulkService.updateUsersMatching(bulkChangeRequest.getFilter(), bulkChangeRequest.getChanges())
+                : userBulkService.updateUsers(bulkChangeRequest.getIds(), bulkChangeRequest.getChanges(),
+                        bulkChangeRequest.isAllOrNothing());
+        return ResponseEntity.ok(bulkChangeResult);
+    }
+
+    // A matching If-None-Match is answered with 304 by Spring before the body is serialized.
     @GetMapping("/{userId}")
     public ResponseEntity<UserEntity> getUserById(@PathVariable Long userId) {
         UserEntity userToGet = userService.getUserById(userId);
-        return ResponseEntity.ok(userToGet);
+        return ResponseEntity.ok()
+                .eTag(userETag(userToGet))
+                .body(userToGet);
     }
 
     @GetMapping
-    public ResponseEntity<List<UserEntity>> getAllUsers() {
+    public ResponseEntity<List<UserEntity>> getAllUsers(@RequestHeader HttpHeaders requestHeaders) {
+        String usersETag = usersETag(userService.getUsersVersion());
+        if (matchesAnyETag(requestHeaders.getIfNoneMatch(), usersETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(usersETag).build();
+        }
+
+        // The list may come from a query that started before that version was read, so the ETag sent
+        // with it is computed from the users actually returned.
         List<UserEntity> usersList = userService.getAllUsers();
+        return ResponseEntity.ok()
+                .eTag(usersETag(UserCollectionVersion.of(usersList)))
+                .body(usersList);
+    }
+
+    @GetMapping("/{userId}/summary")
+    public ResponseEntity<UserSummary> getUserSummaryById(@PathVariable Long userId) {
+        UserSummary userSummary = userService.getUserSummaryById(userId);
+        return ResponseEntity.ok(userSummary);
+    }
+
+    @GetMapping(value = "/{userId}/summary", params = "fields")
+    public ResponseEntity<Map<String, Object>> getUserFieldsById(@PathVariable Long userId, @RequestParam Set<String> fields) {
+        Map<String, Object> userFields = userService.getUserFieldsById(userId, fields);
+        return ResponseEntity.ok(userFields);
+    }
+
+    @GetMapping("/summaries")
+    public ResponseEntity<UserViewPage<UserSummary>> getUserSummariesPage(@RequestParam(required = false) String cursor,
+                                                                          @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit) {
+        UserViewPage<UserSummary> summariesPage = userService.getUserSummariesPage(cursor, limit);
+        return ResponseEntity.ok(summariesPage);
+    }
+
+    @GetMapping(value = "/summaries", params = "fields")
+    public ResponseEntity<UserViewPage<Map<String, Object>>> getUserFieldsPage(@RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit,
+                                                                               @RequestParam Set<String> fields) {
+        UserViewPage<Map<String, Object>> fieldsPage = userService.getUserFieldsPage(cursor, limit, fields);
+        return ResponseEntity.ok(fieldsPage);
+    }
+
+    @GetMapping(value = "/search", params = "email")
+    public ResponseEntity<UserEntity> getUserByEmail(@RequestParam String email) {
+        UserEntity userToGet = userService.getUserByEmail(email);
+        return ResponseEntity.ok(userToGet);
+    }
+
+    @GetMapping(value = "/search", params = "lastNamePrefix")
+    public ResponseEntity<List<UserEntity>> searchUsersByLastNamePrefix(@RequestParam String lastNamePrefix,
+                                                                        @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit) {
+        List<UserEntity> usersList = userService.searchUsersByLastNamePrefix(lastNamePrefix, limit);
+        return ResponseEntity.ok(usersList);
+    }
+
+    @GetMapping(value = "/search", params = {"firstName", "lastName"})
+    public ResponseEntity<List<UserEntity>> searchUsersByName(@RequestParam String firstName,
+                                                              @RequestParam String lastName,
+                                                              @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit) {
+        List<UserEntity> usersList = userService.searchUsersByName(firstName, lastName, limit);
         return ResponseEntity.ok(usersList);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<UserPage> getUsersPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit) {
+        UserPage usersPage = userService.getUsersPage(cursor, limit);
+        return ResponseEntity.ok(usersPage);
+    }
+
+    // Rows are written as the database cursor advances; with "Accept-Encoding: gzip" they are
+    // compressed on the fly instead of buffering the whole export.
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MediaType contentType = switch (format) {
+            case "ndjson" -> APPLICATION_NDJSON;
+            case "json" -> MediaType.APPLICATION_JSON;
+            case "csv" -> TEXT_CSV;
+            default -> throw new IllegalArgumentException("Unsupported stream format: " + format);
+        };
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains(GZIP);
+
+        // Jackson flushes after every value by default, which would send one HTTP chunk (and, with
+        // gzip, one deflate block) per user; rows are flushed in groups instead.
+        StreamingResponseBody responseBody = outputStream -> {
+            OutputStream usersOutput = gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE, true) : outputStream;
+            try (SequenceWriter usersWriter = switch (format) {
+                case "json" -> objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .writeValuesAsArray(usersOutput);
+                case "csv" -> CSV_MAPPER.writerFor(UserEntity.class).with(CSV_SCHEMA)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).writeValues(usersOutput);
+                default -> objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .withRootValueSeparator("\n").writeValues(usersOutput);
+            }) {
+                int[] unflushedRows = {0};
+                userService.streamAllUsers(user -> {
+                    try {
+                        usersWriter.write(user);
+                        if (++unflushedRows[0] == streamFlushRows) {
+                            usersWriter.flush();
+                            unflushedRows[0] = 0;
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(responseBody);
+    }
+
+    // Pushes each committed change of the given users, or of all users without ids, as a "user" event.
+    // A subscriber that falls behind gets an "overflow" event and is disconnected.
+    @GetMapping(path = "/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter watchUsers(@RequestParam(required = false) Set<Long> ids) {
+        return userWatchHub.subscribe(ids);
+    }
+
+    // Changes in the order they were published, after the sequence number a consumer saw last; it
+    // resumes from the sequenceNumber of the last change it received.
+    @GetMapping("/changes")
+    public ResponseEntity<StreamingResponseBody> streamChanges(@RequestParam(defaultValue = "0") long since,
+                                                               @RequestParam(defaultValue = "" + UserChangeService.DEFAULT_CHANGES_LIMIT) int limit) {
+        userChangeService.validateChangesRequest(since, limit);
+
+        StreamingResponseBody responseBody = outputStream -> {
+            try (SequenceWriter changesWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n").writeValues(outputStream)) {
+                int[] unflushedRows = {0};
+                userChangeService.streamChanges(since, limit, change -> {
+                    try {
+                        changesWriter.write(change);
+                        if (++unflushedRows[0] == streamFlushRows) {
+                            changesWriter.flush();
+                            unflushedRows[0] = 0;
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(responseBody);
+    }
+
+    // The body is parsed row by row while the service commits it in chunks; "Content-Encoding: gzip"
+    // uploads are inflated on the fly.
+    @PostMapping("/import")
+    public ResponseEntity<UserImportResult> importUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                        InputStream requestBody) throws IOException {
+        ObjectReader usersReader = switch (format) {
+            case "ndjson" -> objectMapper.readerFor(UserEntity.class);
+            case "csv" -> CSV_MAPPER.readerFor(UserEntity.class).with(CsvSchema.emptySchema().withHeader());
+            default -> throw new IllegalArgumentException("Unsupported import format: " + format);
+        };
+        InputStream usersInput = GZIP.equalsIgnoreCase(contentEncoding)
+                ? new GZIPInputStream(requestBody, GZIP_BUFFER_SIZE)
+                : requestBody;
+
+        try (MappingIterator<UserEntity> users = usersReader.readValues(usersInput)) {
+            return ResponseEntity.ok(userBulkService.importUsers(users));
+        }
+    }
+
     @PutMapping("/{userId}")
-    public ResponseEntity<String> updateUser(@PathVariable Long userId, @RequestBody UserEntity updatedUser) {
-        userService.updateUserById(userId, updatedUser);
+    public ResponseEntity<String> updateUser(@PathVariable Long userId,
+                                             @RequestBody UserEntity updatedUser,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null || ifMatch.equals("*")) {
+            userService.updateUserById(userId, updatedUser);
+        } else {
+            userService.updateUserById(userId, updatedUser, parseVersionETag(ifMatch));
+        }
+        return ResponseEntity.ok("User updated successfully");
+    }
+
+    @PatchMapping("/{userId}")
+    public ResponseEntity<String> patchUser(@PathVariable Long userId, @RequestBody UserEntity changes) {
+        userService.patchUserById(userId, changes);
         return ResponseEntity.ok("User updated successfully");
     }
 
@@ -43,4 +335,47 @@ public class UserController {
         userService.deleteUser(userId);
         return ResponseEntity.ok("User deleted successfully");
     }
+
+    static String userETag(UserEntity user) {
+        return user.getVersion() == null ? null : "\"" + user.getVersion() + "\"";
+    }
+
+    // Weak, because the listing is also served gzip-encoded and Tomcat never compresses a response
+    // carrying a strong validator; If-None-Match uses weak comparison, so revalidation still works.
+    static String usersETag(UserCollectionVersion usersVersion) {
+        return "W/\"" + usersVersion.count() + "-" + usersVersion.maxId() + "-" + usersVersion.versionSum() + "\"";
+    }
+
+    // Weak comparison, as If-None-Match requires. Checked by hand rather than with
+    // WebRequest.checkNotModified, which would also put the version's ETag on a 200 response.
+    private static boolean matchesAnyETag(List<String> eTags, String eTag) {
+        String opaqueTag = withoutWeakPrefix(eTag);
+        return eTags.stream().anyMatch(candidate -> candidate.equals("*") || withoutWeakPrefix(candidate).equals(opaqueTag));
+    }
+
+    private static String withoutWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static Long parseVersionETag(String eTag) {
+        String trimmedETag = eTag.trim();
+        if (trimmedETag.length() > 2 && trimmedETag.startsWith("\"") && trimmedETag.endsWith("\"")) {
+            try {
+                return Long.parseLong(trimmedETag.substring(1, trimmedETag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Reported below together with the other malformed values.
+            }
+        }
+        throw new IllegalArgumentException("Invalid If-Match header: " + eTag);
+    }
+
+    private static boolean isFilterRequest(BulkChangeRequest bulkChangeRequest) {
+        if (bulkChangeRequest.getFilter() == null) {
+            return false;
+        }
+        if (bulkChangeRequest.getIds() != null) {
+            throw new IllegalArgumentException("Either ids or filter must be given, not both");
+        }
+        return true;
+    }
 }
@@ -0,0 +1,7 @@
+package com.apirest.exceptions;
+
+public class IngestionQueueFullException extends RuntimeException {
+    public IngestionQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.apirest.exceptions;
+
+// Stackless like UserNotFoundException: it reports bad client input, not a bug.
+public class InvalidUserIdException extends IllegalArgumentException {
+    private final Long userId;
+
+    public InvalidUserIdException(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Invalid user ID: " + userId;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
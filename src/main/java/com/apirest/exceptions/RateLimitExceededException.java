@@ -0,0 +1,20 @@
+package com.apirest.exceptions;
+
+// Thrown for every rejected request of a throttled client, so it carries no stack trace.
+public class RateLimitExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super(null, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Rate limit exceeded, retry in " + retryAfterSeconds + " s";
+    }
+}
@@ -0,0 +1,8 @@
+package com.apirest.exceptions;
+
+// An operation this deployment does not offer, such as bulk writes when users are sharded.
+public class UnsupportedUserOperationException extends RuntimeException {
+    public UnsupportedUserOperationException(String message) {
+        super(message);
+    }
+}
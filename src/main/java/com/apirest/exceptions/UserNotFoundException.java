@@ -1,11 +1,34 @@
 package com.apirest.exceptions;
 
+// Expected on every miss, so it carries no stack trace and builds its message only when asked.
 public class UserNotFoundException extends RuntimeException {
+    private final Long userId;
+
+    public UserNotFoundException(Long userId) {
+        super(null, null, false, false);
+        this.userId = userId;
+    }
+
     public UserNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
+        this.userId = null;
     }
 
     public UserNotFoundException(String message, Throwable cause) {
         super(message, cause);
+        this.userId = null;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        if (message != null || userId == null) {
+            return message;
+        }
+        return "User with ID: " + userId + " not found.";
     }
 }
@@ -0,0 +1,7 @@
+package com.apirest.exceptions;
+
+public class UserVersionMismatchException extends RuntimeException {
+    public UserVersionMismatchException(String message) {
+        super(message);
+    }
+}
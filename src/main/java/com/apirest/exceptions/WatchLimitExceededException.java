@@ -0,0 +1,7 @@
+package com.apirest.exceptions;
+
+public class WatchLimitExceededException extends RuntimeException {
+    public WatchLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.apirest.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+    private final DataSource dataSource;
+
+    public ConnectionPoolHealthIndicator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Health health() {
+        HikariDataSource hikariDataSource;
+        try {
+            hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException ex) {
+            return Health.unknown().withDetail("reason", "Data source is not a Hikari pool").build();
+        }
+
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        if (hikariDataSource.isClosed()) {
+            return Health.down().withDetail("pool", hikariDataSource.getPoolName()).withDetail("reason", "Pool is closed").build();
+        }
+        if (pool == null) {
+            return Health.unknown().withDetail("pool", hikariDataSource.getPoolName()).withDetail("reason", "Pool not started").build();
+        }
+
+        int active = pool.getActiveConnections();
+        int waiting = pool.getThreadsAwaitingConnection();
+        int maximumPoolSize = hikariDataSource.getMaximumPoolSize();
+
+        // Saturation is reported rather than turned into DOWN: callers still get connections,
+        // they just queue for up to the connection timeout.
+        return Health.up()
+                .withDetail("pool", hikariDataSource.getPoolName())
+                .withDetail("active", active)
+                .withDetail("idle", pool.getIdleConnections())
+                .withDetail("total", pool.getTotalConnections())
+                .withDetail("threadsAwaitingConnection", waiting)
+                .withDetail("maximumPoolSize", maximumPoolSize)
+                .withDetail("minimumIdle", hikariDataSource.getMinimumIdle())
+                .withDetail("connectionTimeoutMs", hikariDataSource.getConnectionTimeout())
+                .withDetail("saturated", active >= maximumPoolSize && waiting > 0)
+                .build();
+    }
+}
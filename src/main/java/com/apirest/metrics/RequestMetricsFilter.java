@@ -0,0 +1,61 @@
+package com.apirest.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+    private static final double MAX_EXPECTED_STATEMENTS = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final double logSampleRate;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, double logSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startNanos = System.nanoTime();
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int sqlStatements = SqlStatementCounter.stop();
+            long durationMicros = (System.nanoTime() - startNanos) / 1000;
+            String route = route(request);
+
+            DistributionSummary.builder("users.request.sql.statements")
+                    .description("SQL statements prepared per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(MAX_EXPECTED_STATEMENTS)
+                    .register(meterRegistry)
+                    .record(sqlStatements);
+
+            if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log.info("request method={} uri={} status={} durationMicros={} sqlStatements={}",
+                        request.getMethod(), route, response.getStatus(), durationMicros, sqlStatements);
+            }
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
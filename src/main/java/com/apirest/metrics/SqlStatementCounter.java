@@ -0,0 +1,26 @@
+package com.apirest.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> STATEMENT_COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        STATEMENT_COUNT.set(new int[1]);
+    }
+
+    public static int stop() {
+        int[] statementCount = STATEMENT_COUNT.get();
+        STATEMENT_COUNT.remove();
+        return statementCount == null ? 0 : statementCount[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] statementCount = STATEMENT_COUNT.get();
+        if (statementCount != null) {
+            statementCount[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,19 @@
+package com.apirest.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkChangeRequest {
+    private List<Long> ids;
+    private UserFilter filter;
+    private UserEntity changes;
+    private boolean allOrNothing;
+}
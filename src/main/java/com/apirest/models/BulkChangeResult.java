@@ -0,0 +1,14 @@
+package com.apirest.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkChangeResult {
+    private int matched;
+    private int affected;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,14 @@
+package com.apirest.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkCreateResult {
+    private int created;
+    private int rejected;
+    private List<BulkRowResult> rows;
+}
@@ -0,0 +1,13 @@
+package com.apirest.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkRowResult {
+    private int index;
+    private BulkRowStatus status;
+    private Long userId;
+    private String message;
+}
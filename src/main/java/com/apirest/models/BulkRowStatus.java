@@ -0,0 +1,7 @@
+package com.apirest.models;
+
+public enum BulkRowStatus {
+    CREATED,
+    INVALID,
+    CONFLICT
+}
@@ -0,0 +1,13 @@
+package com.apirest.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class IngestionTicket {
+    private String trackingId;
+    private IngestionStatus status;
+    private Long userId;
+    private String message;
+}
@@ -0,0 +1,50 @@
+package com.apirest.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@Table(name = "user_changes")
+public class UserChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_id")
+    @JsonIgnore
+    private Long id;
+
+    // Assigned when the change is published; consumers resume after the last one they have seen.
+    @Column(name = "sequence_number")
+    private Long sequenceNumber;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type")
+    private UserChangeType type;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "changed_at")
+    private Instant changedAt;
+}
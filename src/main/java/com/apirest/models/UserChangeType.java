@@ -0,0 +1,7 @@
+package com.apirest.models;
+
+public enum UserChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
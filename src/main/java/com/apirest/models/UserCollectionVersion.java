@@ -0,0 +1,16 @@
+package com.apirest.models;
+
+import java.util.Collection;
+
+public record UserCollectionVersion(long count, long maxId, long versionSum) {
+    // The same version the database computes, for users already loaded.
+    public static UserCollectionVersion of(Collection<UserEntity> users) {
+        long maxId = 0;
+        long versionSum = 0;
+        for (UserEntity user : users) {
+            maxId = Math.max(maxId, user.getId() == null ? 0 : user.getId());
+            versionSum += user.getVersion() == null ? 0 : user.getVersion();
+        }
+        return new UserCollectionVersion(users.size(), maxId, versionSum);
+    }
+}
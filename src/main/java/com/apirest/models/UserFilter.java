@@ -0,0 +1,24 @@
+package com.apirest.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserFilter {
+    private String lastNamePrefix;
+    private String firstName;
+    private String emailDomain;
+
+    public boolean hasCriteria() {
+        return !isBlank(lastNamePrefix) || !isBlank(firstName) || !isBlank(emailDomain);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,14 @@
+package com.apirest.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class UserImportResult {
+    private long imported;
+    private long rejected;
+    private List<BulkRowResult> rejectedRows;
+}
@@ -0,0 +1,4 @@
+package com.apirest.models;
+
+public record UserSummary(Long id, String firstName, String lastName, String email) {
+}
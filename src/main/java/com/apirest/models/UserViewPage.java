@@ -0,0 +1,13 @@
+package com.apirest.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class UserViewPage<T> {
+    private List<T> users;
+    private String nextCursor;
+}
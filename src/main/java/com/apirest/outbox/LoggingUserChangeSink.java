@@ -0,0 +1,21 @@
+package com.apirest.outbox;
+
+import com.apirest.models.UserChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+// Local stand-in for a message broker: logs each published change. Replaced by any other
+// UserChangeSink bean.
+public class LoggingUserChangeSink implements UserChangeSink {
+    private static final Logger log = LoggerFactory.getLogger(LoggingUserChangeSink.class);
+
+    @Override
+    public void publish(List<UserChange> changes) {
+        if (log.isDebugEnabled()) {
+            changes.forEach(change -> log.debug("User {} {} (version {})",
+                    change.getUserId(), change.getType(), change.getVersion()));
+        }
+    }
+}
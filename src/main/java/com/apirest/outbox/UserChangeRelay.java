@@ -0,0 +1,130 @@
+package com.apirest.outbox;
+
+import com.apirest.models.UserChange;
+import com.apirest.repositories.UserChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the outbox to a {@link UserChangeSink} once per interval, in batches, in the order the
+ * changes were recorded. Each batch is numbered, published and marked in one transaction; a sink
+ * failure rolls it back and the batch is retried on the next pass. Published changes are kept for
+ * the retention period, so consumers can read them from the changes endpoint.
+ * <p>
+ * One relay per database: two application instances sharing a file database would publish twice.
+ */
+public class UserChangeRelay implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(UserChangeRelay.class);
+
+    private final UserChangeRepository userChangeRepository;
+    private final UserChangeSink userChangeSink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration interval;
+    private final Duration retention;
+    private final Duration pruneInterval;
+    private final Counter publishedChanges;
+    private ScheduledExecutorService scheduler;
+
+    public UserChangeRelay(UserChangeRepository userChangeRepository, UserChangeSink userChangeSink,
+                           TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, boolean enabled,
+                           int batchSize, Duration interval, Duration retention, Duration pruneInterval) {
+        this.userChangeRepository = userChangeRepository;
+        this.userChangeSink = userChangeSink;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.interval = interval;
+        this.retention = retention;
+        this.pruneInterval = pruneInterval;
+        this.publishedChanges = Counter.builder("users.outbox.published")
+                .description("User changes published by the outbox relay")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("users-outbox-relay").daemon().factory());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                publishPending();
+            } catch (RuntimeException ex) {
+                log.error("Error publishing user changes", ex);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                prune();
+            } catch (RuntimeException ex) {
+                log.error("Error pruning published user changes", ex);
+            }
+        }, pruneInterval.toMillis(), pruneInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Synchronized so that a caller forcing a pass does not race the scheduled one.
+    public synchronized int publishPending() {
+        int published = 0;
+        while (true) {
+            int batch = transactionTemplate.execute(status -> publishBatch());
+            publishedChanges.increment(batch);
+            published += batch;
+            if (batch < batchSize) {
+                return published;
+            }
+        }
+    }
+
+    public synchronized int prune() {
+        Instant cutoff = Instant.now().minus(retention);
+        return transactionTemplate.execute(status -> {
+            Long lastSequenceNumber = userChangeRepository.findLastSequenceNumberBefore(cutoff);
+            return lastSequenceNumber != null ? userChangeRepository.deletePublishedUpTo(lastSequenceNumber) : 0;
+        });
+    }
+
+    // Numbered before they are published, so the sink sees the sequence numbers consumers resume from.
+    private int publishBatch() {
+        List<UserChange> changes = userChangeRepository.findUnpublished(Limit.of(batchSize));
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        long sequenceNumber = userChangeRepository.findLastSequenceNumber();
+        for (UserChange change : changes) {
+            change.setSequenceNumber(++sequenceNumber);
+        }
+        userChangeSink.publish(changes);
+        return changes.size();
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.apirest.outbox;
+
+import com.apirest.models.UserChange;
+
+import java.util.List;
+
+/**
+ * Where {@link UserChangeRelay} publishes user changes, in order, one batch at a time. A batch
+ * that fails is published again on the next pass, so a sink may see a change more than once.
+ */
+public interface UserChangeSink {
+    void publish(List<UserChange> changes);
+}
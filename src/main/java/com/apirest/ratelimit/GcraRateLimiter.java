@@ -0,0 +1,49 @@
+package com.apirest.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Generic cell rate algorithm: a token bucket reduced to one "theoretical arrival time" per client.
+// Admitting a request moves it forward one emission interval with a CAS, so there is no lock and
+// no refill thread. A client gets `burst` back-to-back requests and then one per interval.
+public class GcraRateLimiter {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> arrivalTimes;
+
+    public GcraRateLimiter(double requestsPerSecond, int burst, long maxClients, Duration idleTimeout) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate and a burst of at least 1");
+        }
+
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000L / requestsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.arrivalTimes = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    // Returns 0 when the request is admitted, otherwise the nanoseconds until the client may retry.
+    public long tryAcquire(String clientId) {
+        return tryAcquire(clientId, System.nanoTime());
+    }
+
+    long tryAcquire(String clientId, long nowNanos) {
+        AtomicLong arrivalTime = arrivalTimes.get(clientId, id -> new AtomicLong(nowNanos));
+        while (true) {
+            long theoreticalArrival = arrivalTime.get();
+            long start = theoreticalArrival - nowNanos > 0 ? theoreticalArrival : nowNanos;
+            long waitNanos = start - burstToleranceNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (arrivalTime.compareAndSet(theoreticalArrival, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.apirest.ratelimit;
+
+import com.apirest.exceptions.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Throttles each client per route. Routes are configured as "METHOD /pattern=rate/burst" (rate in
+// requests per second) and fall back to the default limit. The client is the remote address, unless a
+// client header is configured: clients can set any header themselves, so it is only trusted when a
+// gateway in front sets it, and the remote address is still used when it is missing.
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final String clientHeader;
+    private final Limit defaultLimit;
+    private final Map<String, Limit> routeLimits;
+    private final long maxClients;
+    private final Duration idleTimeout;
+
+    // Each handler method serves one route, so its limiter is resolved once instead of per request.
+    private final Map<Method, GcraRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(String clientHeader, String defaultLimit, String[] routeLimits,
+                                long maxClients, Duration idleTimeout) {
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+        this.defaultLimit = Limit.parse(defaultLimit);
+        this.routeLimits = new HashMap<>();
+        for (String routeLimit : routeLimits) {
+            int separator = routeLimit.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid route rate limit: " + routeLimit);
+            }
+            this.routeLimits.put(routeLimit.substring(0, separator).trim(), Limit.parse(routeLimit.substring(separator + 1)));
+        }
+        this.maxClients = maxClients;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        GcraRateLimiter limiter = limiters.get(handlerMethod.getMethod());
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(handlerMethod.getMethod(), method -> newLimiter(handlerMethod));
+        }
+
+        long waitNanos = limiter.tryAcquire(clientId(request));
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+        return true;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String clientId = clientHeader != null ? request.getHeader(clientHeader) : null;
+        return clientId != null ? clientId : request.getRemoteAddr();
+    }
+
+    // The limit comes from the handler's mappings, not from the first request it serves: HEAD
+    // requests are served by the GET handler, so they must not pick the limit of their own route.
+    private GcraRateLimiter newLimiter(HandlerMethod handlerMethod) {
+        Limit limit = routesOf(handlerMethod).stream()
+                .map(routeLimits::get)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(defaultLimit);
+        return new GcraRateLimiter(limit.requestsPerSecond(), limit.burst(), maxClients, idleTimeout);
+    }
+
+    private static List<String> routesOf(HandlerMethod handlerMethod) {
+        RequestMapping typeMapping = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RequestMapping.class);
+        RequestMapping methodMapping = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RequestMapping.class);
+        if (methodMapping == null) {
+            return List.of();
+        }
+
+        List<String> routes = new ArrayList<>();
+        for (RequestMethod requestMethod : methodMapping.method()) {
+            String method = requestMethod == RequestMethod.HEAD ? RequestMethod.GET.name() : requestMethod.name();
+            for (String typePath : pathsOf(typeMapping)) {
+                for (String methodPath : pathsOf(methodMapping)) {
+                    routes.add(method + " " + PATH_MATCHER.combine(typePath, methodPath));
+                }
+            }
+        }
+        return routes;
+    }
+
+    private static String[] pathsOf(RequestMapping mapping) {
+        return mapping != null && mapping.path().length > 0 ? mapping.path() : new String[] {""};
+    }
+
+    private record Limit(double requestsPerSecond, int burst) {
+        static Limit parse(String limit) {
+            String[] parts = limit.trim().split("/");
+            try {
+                return new Limit(Double.parseDouble(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid rate limit: " + limit, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.apirest.replication;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * The replica datasources of the read-replica mode. They get the same schema as the primary and
+ * are kept in sync with it by {@link ReplicaSynchronizer}.
+ */
+public class ReadReplicas implements AutoCloseable {
+    private final List<HikariDataSource> dataSources;
+
+    public ReadReplicas(List<HikariDataSource> dataSources) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    public DataSource getDataSource(int replica) {
+        return dataSources.get(replica);
+    }
+
+    public List<? extends DataSource> getDataSources() {
+        return dataSources;
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
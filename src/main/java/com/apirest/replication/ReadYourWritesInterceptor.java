@@ -0,0 +1,51 @@
+package com.apirest.replication;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Set;
+
+// Pins the requests of clients that wrote recently to the primary and records successful writes.
+// Like the rate limiter, the client is the remote address unless a trusted client header is configured.
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadYourWritesTracker tracker;
+    private final String clientHeader;
+
+    public ReadYourWritesInterceptor(ReadYourWritesTracker tracker, String clientHeader) {
+        this.tracker = tracker;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (tracker.wroteRecently(clientId(request))) {
+            ReadYourWritesTracker.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        try {
+            if (!READ_METHODS.contains(request.getMethod()) && ex == null && response.getStatus() < 400) {
+                tracker.recordWrite(clientId(request));
+            }
+        } finally {
+            ReadYourWritesTracker.unpin();
+        }
+    }
+
+    // Streamed responses are written on another thread, so the request thread must not stay pinned.
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWritesTracker.unpin();
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String clientId = clientHeader != null ? request.getHeader(clientHeader) : null;
+        return clientId != null ? clientId : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,57 @@
+package com.apirest.replication;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which clients wrote within the read-your-writes window. Their requests are pinned to
+ * the primary, so they never read a replica that has not caught up with their own writes yet.
+ */
+public class ReadYourWritesTracker {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    public void recordWrite(String clientId) {
+        recentWriters.put(clientId, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(String clientId) {
+        return recentWriters.getIfPresent(clientId) != null;
+    }
+
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        if (isPinnedToPrimary()) {
+            return action.get();
+        }
+
+        pinToPrimary();
+        try {
+            return action.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+}
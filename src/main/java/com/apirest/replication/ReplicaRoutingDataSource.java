@@ -0,0 +1,39 @@
+package com.apirest.replication;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions: of the replicas in turn, or of the primary
+ * while the calling thread is pinned to it by {@link ReadYourWritesTracker}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String PRIMARY = "primary";
+
+    private final int replicaCount;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas) {
+        Map<Object, Object> dataSources = new HashMap<>();
+        dataSources.put(PRIMARY, primary);
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            dataSources.put(replica, replicas.getDataSource(replica));
+        }
+        setTargetDataSources(dataSources);
+        setDefaultTargetDataSource(primary);
+        initialize();
+        this.replicaCount = replicas.size();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReadYourWritesTracker.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        return Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+    }
+}
@@ -0,0 +1,186 @@
+package com.apirest.replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.support.SQLExceptionSubclassTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for database replication: copies the users table from the primary to every replica
+ * once per interval. Both sides are walked in id order and compared by version, so a pass only
+ * rewrites the users that changed since the previous one.
+ * <p>
+ * Changes are not applied in commit order, so two users swapping emails within one interval
+ * would break the replica's unique key; such a pass falls back to copying the whole table.
+ */
+public class ReplicaSynchronizer implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSynchronizer.class);
+    private static final SQLExceptionTranslator EXCEPTION_TRANSLATOR = new SQLExceptionSubclassTranslator();
+
+    private static final String VERSIONS_SQL = "select user_id, version from users order by user_id";
+    private static final String SELECT_SQL = "select user_id, first_name, last_name, email, version from users where user_id = ?";
+    private static final String SELECT_ALL_SQL = "select user_id, first_name, last_name, email, version from users";
+    private static final String MERGE_SQL = "merge into users (user_id, first_name, last_name, email, version) key (user_id) values (?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "delete from users where user_id = ?";
+
+    private final DataSource primary;
+    private final List<? extends DataSource> replicas;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaSynchronizer(DataSource primary, List<? extends DataSource> replicas, Duration interval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.interval = interval;
+    }
+
+    // Lifecycle beans start once the context is refreshed, after Flyway has migrated every database.
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("users-replica-sync").daemon().factory());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                synchronizeAll();
+            } catch (RuntimeException ex) {
+                log.error("Error synchronizing users replicas", ex);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Synchronized so that a caller forcing a pass does not race the scheduled one.
+    public synchronized void synchronizeAll() {
+        for (DataSource replica : replicas) {
+            synchronize(replica);
+        }
+    }
+
+    private void synchronize(DataSource replica) {
+        try (Connection source = primary.getConnection();
+             Connection target = replica.getConnection()) {
+            List<Long> upserts = new ArrayList<>();
+            List<Long> deletes = new ArrayList<>();
+            diff(source, target, upserts, deletes);
+            if (upserts.isEmpty() && deletes.isEmpty()) {
+                return;
+            }
+
+            target.setAutoCommit(false);
+            try {
+                try {
+                    apply(source, target, upserts, deletes);
+                } catch (SQLException ex) {
+                    target.rollback();
+                    copyAll(source, target);
+                }
+                target.commit();
+            } catch (SQLException | RuntimeException ex) {
+                // Restoring auto-commit commits what is pending, such as the delete that empties the
+                // replica before a full copy, so a failed pass must be rolled back first.
+                target.rollback();
+                throw ex;
+            } finally {
+                target.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            throw EXCEPTION_TRANSLATOR.translate("synchronize", null, ex);
+        }
+    }
+
+    private void diff(Connection source, Connection target, List<Long> upserts, List<Long> deletes) throws SQLException {
+        try (Statement sourceStatement = source.createStatement();
+             Statement targetStatement = target.createStatement();
+             ResultSet sourceRows = sourceStatement.executeQuery(VERSIONS_SQL);
+             ResultSet targetRows = targetStatement.executeQuery(VERSIONS_SQL)) {
+            boolean hasSource = sourceRows.next();
+            boolean hasTarget = targetRows.next();
+            while (hasSource || hasTarget) {
+                int order = !hasSource ? 1 : !hasTarget ? -1 : Long.compare(sourceRows.getLong(1), targetRows.getLong(1));
+                if (order < 0) {
+                    upserts.add(sourceRows.getLong(1));
+                    hasSource = sourceRows.next();
+                } else if (order > 0) {
+                    deletes.add(targetRows.getLong(1));
+                    hasTarget = targetRows.next();
+                } else {
+                    if (sourceRows.getLong(2) != targetRows.getLong(2)) {
+                        upserts.add(sourceRows.getLong(1));
+                    }
+                    hasSource = sourceRows.next();
+                    hasTarget = targetRows.next();
+                }
+            }
+        }
+    }
+
+    private void apply(Connection source, Connection target, List<Long> upserts, List<Long> deletes) throws SQLException {
+        try (PreparedStatement delete = target.prepareStatement(DELETE_SQL)) {
+            for (Long userId : deletes) {
+                delete.setLong(1, userId);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+        }
+
+        try (PreparedStatement select = source.prepareStatement(SELECT_SQL);
+             PreparedStatement merge = target.prepareStatement(MERGE_SQL)) {
+            for (Long userId : upserts) {
+                select.setLong(1, userId);
+                try (ResultSet row = select.executeQuery()) {
+                    // Deleted since the diff: the next pass removes it from the replica.
+                    if (row.next()) {
+                        addRow(merge, row);
+                    }
+                }
+            }
+            merge.executeBatch();
+        }
+    }
+
+    private void copyAll(Connection source, Connection target) throws SQLException {
+        try (Statement clear = target.createStatement()) {
+            clear.executeUpdate("delete from users");
+        }
+
+        try (Statement select = source.createStatement();
+             ResultSet rows = select.executeQuery(SELECT_ALL_SQL);
+             PreparedStatement merge = target.prepareStatement(MERGE_SQL)) {
+            while (rows.next()) {
+                addRow(merge, rows);
+            }
+            merge.executeBatch();
+        }
+    }
+
+    private static void addRow(PreparedStatement merge, ResultSet row) throws SQLException {
+        for (int column = 1; column <= 5; column++) {
+            merge.setObject(column, row.getObject(column));
+        }
+        merge.addBatch();
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.apirest.repositories;
+
+import com.apirest.models.UserChange;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+    // Copies the current rows of the users, so it must run after the change and under its row locks.
+    @Modifying
+    @Query(value = "insert into user_changes (user_id, change_type, first_name, last_name, email, version, changed_at) " +
+            "select user_id, :type, first_name, last_name, email, version, current_timestamp from users " +
+            "where user_id in (:ids) order by user_id", nativeQuery = true)
+    int insertChangesOfUsers(@Param("ids") Collection<Long> ids, @Param("type") String type);
+
+    @Query("select c from UserChange c where c.sequenceNumber is null order by c.id")
+    List<UserChange> findUnpublished(Limit limit);
+
+    @Query("select coalesce(max(c.sequenceNumber), 0) from UserChange c")
+    long findLastSequenceNumber();
+
+    @Query("select min(c.sequenceNumber) from UserChange c")
+    Long findFirstSequenceNumber();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from UserChange c where c.sequenceNumber > :since order by c.sequenceNumber")
+    Stream<UserChange> streamPublishedAfter(@Param("since") long since, Limit limit);
+
+    @Query("select max(c.sequenceNumber) from UserChange c where c.changedAt < :cutoff")
+    Long findLastSequenceNumberBefore(@Param("cutoff") Instant cutoff);
+
+    // Deletes by sequence number so that the changes kept are always the newest ones, without gaps.
+    @Modifying
+    @Query("delete from UserChange c where c.sequenceNumber <= :sequenceNumber")
+    int deletePublishedUpTo(@Param("sequenceNumber") long sequenceNumber);
+}
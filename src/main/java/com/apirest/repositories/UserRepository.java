@@ -1,9 +1,101 @@
 package com.apirest.repositories;
 
+import com.apirest.models.UserCollectionVersion;
 import com.apirest.models.UserEntity;
+import com.apirest.models.UserSummary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserRepositoryCustom {
+    List<UserEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    Optional<UserEntity> findByEmail(String email);
+
+    Optional<UserSummary> findSummaryById(Long id);
+
+    List<UserSummary> findSummariesByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<UserEntity> findByLastNameStartingWithOrderByLastNameAscFirstNameAscIdAsc(String lastNamePrefix, Limit limit);
+
+    List<UserEntity> findByFirstNameAndLastNameOrderByIdAsc(String firstName, String lastName, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from UserEntity u order by u.id")
+    Stream<UserEntity> streamAllOrderedById();
+
+    @Query("select u.email from UserEntity u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UserEntity u set u.firstName = :firstName, u.lastName = :lastName, u.email = :email, " +
+            "u.version = u.version + 1 where u.id = :id")
+    int updateUserById(@Param("id") Long id,
+                       @Param("firstName") String firstName,
+                       @Param("lastName") String lastName,
+                       @Param("email") String email);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UserEntity u set u.firstName = :firstName, u.lastName = :lastName, u.email = :email, " +
+            "u.version = u.version + 1 where u.id = :id and u.version = :version")
+    int updateUserByIdAndVersion(@Param("id") Long id,
+                                 @Param("version") Long version,
+                                 @Param("firstName") String firstName,
+                                 @Param("lastName") String lastName,
+                                 @Param("email") String email);
+
+    @Query("select new com.apirest.models.UserCollectionVersion(count(u), coalesce(max(u.id), 0), coalesce(sum(u.version), 0)) " +
+            "from UserEntity u")
+    UserCollectionVersion findCollectionVersion();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserEntity u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    // Sharded mode: ids are allocated before the row's shard is known, so rows are inserted with their id.
+    @Modifying
+    @Query(value = "insert into users (user_id, first_name, last_name, email, version) " +
+            "values (:id, :firstName, :lastName, :email, 0)", nativeQuery = true)
+    int insertUser(@Param("id") Long id,
+                   @Param("firstName") String firstName,
+                   @Param("lastName") String lastName,
+                   @Param("email") String email);
+
+    @Query(value = "select email from users where user_id = :id for update", nativeQuery = true)
+    Optional<String> findEmailByIdForUpdate(@Param("id") Long id);
+
+    @Query("select u.id from UserEntity u where u.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select user_id from users where user_id in (:ids) for update", nativeQuery = true)
+    List<Long> lockUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserEntity u where u.id in :ids")
+    int deleteUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UserEntity u set u.firstName = coalesce(:firstName, u.firstName), " +
+            "u.lastName = coalesce(:lastName, u.lastName), u.version = u.version + 1 where u.id in :ids")
+    int updateUserNamesByIdIn(@Param("ids") Collection<Long> ids,
+                              @Param("firstName") String firstName,
+                              @Param("lastName") String lastName);
 }
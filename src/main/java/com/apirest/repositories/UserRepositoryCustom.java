@@ -0,0 +1,19 @@
+package com.apirest.repositories;
+
+import com.apirest.models.UserEntity;
+import com.apirest.models.UserFilter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+    int patchUserById(Long id, UserEntity changes);
+
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<String> fields);
+
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Long id, Set<String> fields, int limit);
+
+    List<Long> findIdsMatching(UserFilter filter, Long id, int limit);
+}
@@ -0,0 +1,144 @@
+package com.apirest.repositories;
+
+import com.apirest.models.UserEntity;
+import com.apirest.models.UserFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int patchUserById(Long id, UserEntity changes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<UserEntity> update = criteriaBuilder.createCriteriaUpdate(UserEntity.class);
+        Root<UserEntity> user = update.from(UserEntity.class);
+
+        boolean hasChanges = false;
+        if (changes.getFirstName() != null) {
+            update.set(user.<String>get("firstName"), changes.getFirstName());
+            hasChanges = true;
+        }
+        if (changes.getLastName() != null) {
+            update.set(user.<String>get("lastName"), changes.getLastName());
+            hasChanges = true;
+        }
+        if (changes.getEmail() != null) {
+            update.set(user.<String>get("email"), changes.getEmail());
+            hasChanges = true;
+        }
+        if (!hasChanges) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+
+        update.set(user.<Long>get("version"), criteriaBuilder.sum(user.<Long>get("version"), 1L));
+        update.where(criteriaBuilder.equal(user.get("id"), id));
+
+        entityManager.flush();
+        int updatedRows = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updatedRows;
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<String> fields) {
+        List<Map<String, Object>> rows = findFields(fields, 1,
+                (criteriaBuilder, user) -> criteriaBuilder.equal(user.get("id"), id));
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(Long id, Set<String> fields, int limit) {
+        return findFields(fields, limit,
+                (criteriaBuilder, user) -> criteriaBuilder.greaterThan(user.get("id"), id));
+    }
+
+    @Override
+    public List<Long> findIdsMatching(UserFilter filter, Long id, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<UserEntity> user = query.from(UserEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.greaterThan(user.get("id"), id));
+        if (filter.getLastNamePrefix() != null && !filter.getLastNamePrefix().isBlank()) {
+            predicates.add(criteriaBuilder.like(user.get("lastName"), escapeLike(filter.getLastNamePrefix()) + "%", LIKE_ESCAPE));
+        }
+        if (filter.getFirstName() != null && !filter.getFirstName().isBlank()) {
+            predicates.add(criteriaBuilder.equal(user.get("firstName"), filter.getFirstName()));
+        }
+        if (filter.getEmailDomain() != null && !filter.getEmailDomain().isBlank()) {
+            predicates.add(criteriaBuilder.like(user.get("email"), "%@" + escapeLike(filter.getEmailDomain()), LIKE_ESCAPE));
+        }
+
+        query.select(user.get("id"))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(criteriaBuilder.asc(user.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private List<Map<String, Object>> findFields(Set<String> fields, int limit, IdRestriction idRestriction) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<UserEntity> user = query.from(UserEntity.class);
+
+        // The id is always selected so callers can build keyset cursors from the rows.
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(user.get("id").alias("id"));
+        for (String field : fields) {
+            if (!"id".equals(field)) {
+                selections.add(user.get(field).alias(field));
+            }
+        }
+
+        query.multiselect(selections)
+                .where(idRestriction.toPredicate(criteriaBuilder, user))
+                .orderBy(criteriaBuilder.asc(user.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface IdRestriction {
+        Predicate toPredicate(CriteriaBuilder criteriaBuilder, Root<UserEntity> user);
+    }
+}
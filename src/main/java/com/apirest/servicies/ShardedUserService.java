@@ -0,0 +1,359 @@
+package com.apirest.servicies;
+
+import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.exceptions.UserNotFoundException;
+import com.apirest.models.UserCollectionVersion;
+import com.apirest.models.UserChangeType;
+import com.apirest.models.UserEntity;
+import com.apirest.models.UserPage;
+import com.apirest.models.UserSummary;
+import com.apirest.models.UserViewPage;
+import com.apirest.repositories.UserRepository;
+import com.apirest.sharding.UserEmailDirectory;
+import com.apirest.sharding.UserIdAllocator;
+import com.apirest.sharding.UserShards;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link UserService} over {@link UserShards}. Calls for one user run the inherited logic on the
+ * shard of the user's id; listings run it on every shard in parallel and merge the results.
+ * The inherited transactions start on a lazy connection, so they bind to the shard selected
+ * before their first statement.
+ */
+public class ShardedUserService extends UserService {
+    private static final Comparator<UserEntity> BY_ID = Comparator.comparing(UserEntity::getId);
+
+    private static final Comparator<UserEntity> BY_LAST_NAME = Comparator.comparing(UserEntity::getLastName)
+            .thenComparing(UserEntity::getFirstName)
+            .thenComparing(UserEntity::getId);
+
+    @Autowired
+    private UserShards userShards;
+
+    @Autowired
+    private UserIdAllocator userIdAllocator;
+
+    @Autowired
+    private UserEmailDirectory userEmailDirectory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Platform threads: H2 runs statements inside synchronized blocks, which pin virtual threads.
+    private final ExecutorService fanOutExecutor = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("users-shard-fan-out-", 0).daemon().factory());
+
+    @PreDestroy
+    public void stop() {
+        fanOutExecutor.close();
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public void addUser(UserEntity userToAdd) {
+        validateUser(userToAdd);
+
+        long userId = userIdAllocator.nextId();
+        try {
+            userEmailDirectory.claim(userToAdd.getEmail(), userId);
+            releaseEmailOn(TransactionSynchronization.STATUS_ROLLED_BACK, userToAdd.getEmail(), userId);
+            runOnUserShard(userId, () -> userRepository.insertUser(userId,
+                    userToAdd.getFirstName(), userToAdd.getLastName(), userToAdd.getEmail()));
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error creating user: " + ex.getMessage());
+        }
+        userToAdd.setId(userId);
+        userToAdd.setVersion(0L);
+        publishChange(UserChangeType.CREATED, userId, userToAdd);
+        forgetInFlightLookups(userId);
+    }
+
+    @Override
+    protected UserEntity findUserById(Long userId) {
+        return callOnUserShard(userId, () -> super.findUserById(userId));
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public UserEntity getUserByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Invalid email: " + email);
+        }
+
+        Long userId;
+        try {
+            userId = userEmailDirectory.findUserId(email)
+                    .orElseThrow(() -> new UserNotFoundException("User with email: " + email + " not found."));
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error searching users: " + ex.getMessage());
+        }
+        return callOnUserShard(userId, () -> super.getUserByEmail(email));
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public List<UserEntity> searchUsersByLastNamePrefix(String lastNamePrefix, int limit) {
+        return mergeSorted(onEveryShard(() -> super.searchUsersByLastNamePrefix(lastNamePrefix, limit)), BY_LAST_NAME, limit);
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public List<UserEntity> searchUsersByName(String firstName, String lastName, int limit) {
+        return mergeSorted(onEveryShard(() -> super.searchUsersByName(firstName, lastName, limit)), BY_ID, limit);
+    }
+
+    @Override
+    protected List<UserEntity> findAllUsers() {
+        return mergeSorted(onEveryShard(super::findAllUsers), BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public UserCollectionVersion getUsersVersion() {
+        long count = 0;
+        long maxId = 0;
+        long versionSum = 0;
+        for (UserCollectionVersion shardVersion : onEveryShard(super::getUsersVersion)) {
+            count += shardVersion.count();
+            maxId = Math.max(maxId, shardVersion.maxId());
+            versionSum += shardVersion.versionSum();
+        }
+        return new UserCollectionVersion(count, maxId, versionSum);
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public UserPage getUsersPage(String cursor, int limit) {
+        List<UserPage> shardPages = onEveryShard(() -> super.getUsersPage(cursor, limit));
+        UserViewPage<UserEntity> page = mergePages(
+                shardPages.stream().map(UserPage::getUsers).toList(),
+                shardPages.stream().anyMatch(shardPage -> shardPage.getNextCursor() != null),
+                limit, UserEntity::getId);
+        return new UserPage(page.getUsers(), page.getNextCursor());
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public UserSummary getUserSummaryById(Long userId) {
+        return callOnUserShard(userId, () -> super.getUserSummaryById(userId));
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public Map<String, Object> getUserFieldsById(Long userId, Set<String> fields) {
+        return callOnUserShard(userId, () -> super.getUserFieldsById(userId, fields));
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public UserViewPage<UserSummary> getUserSummariesPage(String cursor, int limit) {
+        List<UserViewPage<UserSummary>> shardPages = onEveryShard(() -> super.getUserSummariesPage(cursor, limit));
+        return mergePages(
+                shardPages.stream().map(UserViewPage::getUsers).toList(),
+                shardPages.stream().anyMatch(shardPage -> shardPage.getNextCursor() != null),
+                limit, UserSummary::id);
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public UserViewPage<Map<String, Object>> getUserFieldsPage(String cursor, int limit, Set<String> fields) {
+        // The shard pages are merged by id, so it is fetched even when it was not asked for.
+        boolean idSelected = fields == null || fields.isEmpty() || fields.contains("id");
+        Set<String> shardFields = fields;
+        if (!idSelected) {
+            shardFields = new LinkedHashSet<>(fields);
+            shardFields.add("id");
+        }
+
+        Set<String> selectedFields = shardFields;
+        List<UserViewPage<Map<String, Object>>> shardPages = onEveryShard(() -> super.getUserFieldsPage(cursor, limit, selectedFields));
+        UserViewPage<Map<String, Object>> page = mergePages(
+                shardPages.stream().map(UserViewPage::getUsers).toList(),
+                shardPages.stream().anyMatch(shardPage -> shardPage.getNextCursor() != null),
+                limit, row -> (Long) row.get("id"));
+        if (!idSelected) {
+            page.getUsers().forEach(row -> row.remove("id"));
+        }
+        return page;
+    }
+
+    /**
+     * Streams the shards one after another, each in its own read-only transaction, so users come
+     * in id order within a shard but not across shards.
+     */
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public void streamAllUsers(Consumer<UserEntity> userConsumer) {
+        TransactionTemplate shardTransaction = new TransactionTemplate(transactionManager);
+        shardTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        shardTransaction.setReadOnly(true);
+
+        for (int shard = 0; shard < userShards.size(); shard++) {
+            userShards.runOn(shard, () -> shardTransaction.executeWithoutResult(status -> super.streamAllUsers(userConsumer)));
+        }
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public void updateUserById(Long userIdToUpdate, UserEntity updatedUser) {
+        validateUser(updatedUser);
+        runOnUserShard(userIdToUpdate, () -> {
+            changeEmail(userIdToUpdate, updatedUser.getEmail());
+            super.updateUserById(userIdToUpdate, updatedUser);
+        });
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public void updateUserById(Long userIdToUpdate, UserEntity updatedUser, Long expectedVersion) {
+        validateUser(updatedUser);
+        runOnUserShard(userIdToUpdate, () -> {
+            changeEmail(userIdToUpdate, updatedUser.getEmail());
+            super.updateUserById(userIdToUpdate, updatedUser, expectedVersion);
+        });
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public void patchUserById(Long userIdToPatch, UserEntity changes) {
+        runOnUserShard(userIdToPatch, () -> {
+            changeEmail(userIdToPatch, changes == null ? null : changes.getEmail());
+            super.patchUserById(userIdToPatch, changes);
+        });
+    }
+
+    @Override
+    @Timed(value = "users.service", histogram = true)
+    public void deleteUser(Long userId) {
+        runOnUserShard(userId, () -> {
+            String email = lockEmail(userId);
+            super.deleteUser(userId);
+            releaseEmailOn(TransactionSynchronization.STATUS_COMMITTED, email, userId);
+        });
+    }
+
+    // The new email is claimed before the row changes and the old one released once it has
+    // committed; the row lock keeps a concurrent change of the same user from racing the directory.
+    private void changeEmail(Long userId, String newEmail) {
+        if (newEmail == null) {
+            return;
+        }
+
+        String currentEmail = lockEmail(userId);
+        if (currentEmail == null || currentEmail.equals(newEmail)) {
+            return;
+        }
+
+        try {
+            userEmailDirectory.claim(newEmail, userId);
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error updating user: " + ex.getMessage());
+        }
+        releaseEmailOn(TransactionSynchronization.STATUS_ROLLED_BACK, newEmail, userId);
+        releaseEmailOn(TransactionSynchronization.STATUS_COMMITTED, currentEmail, userId);
+    }
+
+    // Returns null for invalid or missing ids and leaves reporting them to the inherited call.
+    private String lockEmail(Long userId) {
+        if (userId == null || userId <= 0) {
+            return null;
+        }
+
+        try {
+            return userRepository.findEmailByIdForUpdate(userId).orElse(null);
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error updating user: " + ex.getMessage());
+        }
+    }
+
+    private void releaseEmailOn(int completionStatus, String email, Long userId) {
+        if (email == null) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == completionStatus) {
+                    userEmailDirectory.release(email, userId);
+                }
+            }
+        });
+    }
+
+    private <T> T callOnUserShard(Long userId, Supplier<T> action) {
+        return userShards.callOn(userId == null ? 0 : userShards.shardForUserId(userId), action);
+    }
+
+    private void runOnUserShard(Long userId, Runnable action) {
+        callOnUserShard(userId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> List<T> onEveryShard(Supplier<T> action) {
+        List<CompletableFuture<T>> shardResults = new ArrayList<>(userShards.size());
+        for (int shard = 0; shard < userShards.size(); shard++) {
+            int targetShard = shard;
+            shardResults.add(CompletableFuture.supplyAsync(() -> userShards.callOn(targetShard, action), fanOutExecutor));
+        }
+
+        try {
+            return shardResults.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static List<UserEntity> mergeSorted(List<List<UserEntity>> shardUsers, Comparator<UserEntity> order, int limit) {
+        return shardUsers.stream()
+                .flatMap(List::stream)
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    // Every shard returns its first page after the cursor, so the merged first page is among them.
+    // A shard with more rows returned a full page, so the merged page is full too.
+    private static <T> UserViewPage<T> mergePages(List<List<T>> shardUsers, boolean shardHasMore, int limit, ToLongFunction<T> id) {
+        List<T> users = shardUsers.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingLong(id))
+                .toList();
+        if (users.size() <= limit && !shardHasMore) {
+            return new UserViewPage<>(users, null);
+        }
+
+        List<T> pageUsers = users.subList(0, limit);
+        return new UserViewPage<>(pageUsers, encodeCursor(id.applyAsLong(pageUsers.get(limit - 1))));
+    }
+}
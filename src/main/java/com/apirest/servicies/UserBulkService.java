@@ -0,0 +1,497 @@
+package com.apirest.servicies;
+
+import com.apirest.config.CacheConfig;
+import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.exceptions.InvalidUserIdException;
+import com.apirest.exceptions.UnsupportedUserOperationException;
+import com.apirest.exceptions.UserNotFoundException;
+import com.apirest.models.BulkChangeResult;
+import com.apirest.models.BulkCreateResult;
+import com.apirest.models.BulkRowResult;
+import com.apirest.models.BulkRowStatus;
+import com.apirest.models.UserChangeType;
+import com.apirest.models.UserEntity;
+import com.apirest.models.UserFilter;
+import com.apirest.models.UserImportResult;
+import com.apirest.repositories.UserRepository;
+import com.apirest.singleflight.SingleFlight;
+import com.apirest.watch.UserChangedEvent;
+import com.apirest.watch.UserWatchHub;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+@Service
+public class UserBulkService {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private UserChangeService userChangeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserWatchHub userWatchHub;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SingleFlight<Long, UserEntity> userByIdFlight;
+
+    @Autowired
+    private SingleFlight<String, List<UserEntity>> allUsersFlight;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${users.bulk.max-size:10000}")
+    private int maxBulkSize = 10000;
+
+    @Value("${users.bulk.flush-size:500}")
+    private int flushSize = 500;
+
+    @Value("${users.import.chunk-size:1000}")
+    private int importChunkSize = 1000;
+
+    @Value("${users.import.max-reported-rejections:100}")
+    private int maxReportedRejections = 100;
+
+    @Value("${users.sharding.enabled:false}")
+    private boolean shardingEnabled;
+
+    // Runs in its own transaction. If another writer inserts one of the emails after they were
+    // checked, the whole attempt rolls back and each row is retried in its own transaction, so only
+    // the rows that lost the race are reported as conflicts. Inside a caller's transaction nothing
+    // can be retried, so the error is thrown instead.
+    @Timed(value = "users.service", histogram = true)
+    public BulkCreateResult addUsers(List<UserEntity> usersToAdd) {
+        rejectWhenSharded();
+        if (usersToAdd == null || usersToAdd.isEmpty()) {
+            throw new IllegalArgumentException("Users to create must not be empty");
+        }
+        if (usersToAdd.size() > maxBulkSize) {
+            throw new IllegalArgumentException("Too many users to create: " + usersToAdd.size() + ". Maximum is " + maxBulkSize);
+        }
+
+        BulkRowResult[] rows = new BulkRowResult[usersToAdd.size()];
+        List<Integer> candidateIndexes = validateAndDeduplicate(usersToAdd, rows);
+
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertNewUsers(usersToAdd, candidateIndexes, rows));
+            } catch (DataIntegrityViolationException ex) {
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw ex;
+                }
+                for (int index : candidateIndexes) {
+                    rows[index] = insertAlone(usersToAdd.get(index), index);
+                }
+            }
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error creating users: " + ex.getMessage());
+        }
+
+        int created = 0;
+        for (int index = 0; index < rows.length; index++) {
+            if (rows[index] == null) {
+                rows[index] = new BulkRowResult(index, BulkRowStatus.CREATED, usersToAdd.get(index).getId(), null);
+            }
+            if (rows[index].getStatus() == BulkRowStatus.CREATED) {
+                created++;
+            }
+        }
+
+        return new BulkCreateResult(created, rows.length - created, Arrays.asList(rows));
+    }
+
+    // Pulls rows from the parser one chunk at a time and commits each chunk on its own, so memory
+    // stays bounded by the chunk size and a failure only loses the chunk in flight. Row indexes in
+    // the result are positions in the whole input.
+    @Timed(value = "users.service", histogram = true)
+    public UserImportResult importUsers(Iterator<UserEntity> users) {
+        rejectWhenSharded();
+        long imported = 0;
+        long rejected = 0;
+        List<BulkRowResult> rejectedRows = new ArrayList<>();
+        List<UserEntity> chunk = new ArrayList<>(importChunkSize);
+        int[] chunkRowIndexes = new int[importChunkSize];
+        int rowIndex = 0;
+
+        while (true) {
+            UserEntity user;
+            try {
+                if (!users.hasNext()) {
+                    break;
+                }
+                user = users.next();
+            } catch (RuntimeJsonMappingException ex) {
+                // The parser resumes at the next row, so only this one is lost.
+                rejected++;
+                reportRejection(rejectedRows, new BulkRowResult(rowIndex++, BulkRowStatus.INVALID, null,
+                        "Malformed row: " + originalMessage(ex)));
+                continue;
+            } catch (RuntimeException ex) {
+                if (ex.getCause() instanceof JsonProcessingException) {
+                    throw new IllegalArgumentException("Malformed input after row " + rowIndex + " (" + imported
+                            + " users already imported): " + originalMessage(ex));
+                }
+                throw ex;
+            }
+
+            chunkRowIndexes[chunk.size()] = rowIndex++;
+            chunk.add(user);
+            if (chunk.size() == importChunkSize) {
+                int created = importChunk(chunk, chunkRowIndexes, rejectedRows);
+                imported += created;
+                rejected += chunk.size() - created;
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            int created = importChunk(chunk, chunkRowIndexes, rejectedRows);
+            imported += created;
+            rejected += chunk.size() - created;
+        }
+        return new UserImportResult(imported, rejected, rejectedRows);
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional
+    public BulkChangeResult deleteUsers(List<Long> userIds, boolean allOrNothing) {
+        rejectWhenSharded();
+        return changeUsers(userIds, allOrNothing, "Error deleting users: ", this::deleteUsersByIdIn);
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional
+    public BulkChangeResult updateUsers(List<Long> userIds, UserEntity changes, boolean allOrNothing) {
+        rejectWhenSharded();
+        validateNameChanges(changes);
+        return changeUsers(userIds, allOrNothing, "Error updating users: ",
+                chunk -> updateUserNamesByIdIn(chunk, changes));
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    public BulkChangeResult deleteUsersMatching(UserFilter filter) {
+        rejectWhenSharded();
+        return changeUsersMatching(filter, "Error deleting users: ", this::deleteUsersByIdIn);
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    public BulkChangeResult updateUsersMatching(UserFilter filter, UserEntity changes) {
+        rejectWhenSharded();
+        validateNameChanges(changes);
+        return changeUsersMatching(filter, "Error updating users: ",
+                chunk -> updateUserNamesByIdIn(chunk, changes));
+    }
+
+    // Runs in the caller's transaction: with allOrNothing a miss is detected before any statement
+    // is executed, and any failure rolls back every chunk. The rows found are locked then, so none
+    // can be deleted by another transaction before every chunk is changed.
+    private BulkChangeResult changeUsers(List<Long> userIds, boolean allOrNothing, String errorPrefix,
+                                         ToIntFunction<List<Long>> statement) {
+        List<Long> uniqueIds = validateUserIds(userIds);
+
+        try {
+            List<Long> existingIds = new ArrayList<>(uniqueIds.size());
+            List<Long> missingIds = new ArrayList<>();
+            for (int from = 0; from < uniqueIds.size(); from += flushSize) {
+                List<Long> idsChunk = uniqueIds.subList(from, Math.min(from + flushSize, uniqueIds.size()));
+                Set<Long> existingInChunk = allOrNothing
+                        ? new HashSet<>(userRepository.lockUsersByIdIn(idsChunk))
+                        : userRepository.findExistingIds(idsChunk);
+                for (Long userId : idsChunk) {
+                    (existingInChunk.contains(userId) ? existingIds : missingIds).add(userId);
+                }
+            }
+            if (allOrNothing && !missingIds.isEmpty()) {
+                throw new UserNotFoundException("Users with IDs: " + missingIds + " not found.");
+            }
+
+            int affected = 0;
+            for (int from = 0; from < existingIds.size(); from += flushSize) {
+                List<Long> idsChunk = existingIds.subList(from, Math.min(from + flushSize, existingIds.size()));
+                affected += statement.applyAsInt(idsChunk);
+                evictCachedUsers(idsChunk);
+            }
+            return new BulkChangeResult(uniqueIds.size(), affected, missingIds);
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException(errorPrefix + ex.getMessage());
+        }
+    }
+
+    // Walks the matching ids with a keyset and commits each chunk on its own, so an unbounded
+    // filter never holds one huge transaction and never loads an entity.
+    private BulkChangeResult changeUsersMatching(UserFilter filter, String errorPrefix,
+                                                 ToIntFunction<List<Long>> statement) {
+        if (filter == null || !filter.hasCriteria()) {
+            throw new IllegalArgumentException("Filter must have at least one criterion");
+        }
+
+        int matched = 0;
+        int affected = 0;
+        Long lastSeenId = 0L;
+        try {
+            while (true) {
+                List<Long> idsChunk = userRepository.findIdsMatching(filter, lastSeenId, flushSize);
+                if (idsChunk.isEmpty()) {
+                    break;
+                }
+
+                matched += idsChunk.size();
+                affected += transactionTemplate.execute(status -> statement.applyAsInt(idsChunk));
+                evictCachedUsers(idsChunk);
+                lastSeenId = idsChunk.get(idsChunk.size() - 1);
+                if (idsChunk.size() < flushSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException(errorPrefix + ex.getMessage());
+        }
+        return new BulkChangeResult(matched, affected, List.of());
+    }
+
+    // The rows are locked before their deletion is recorded, so it is recorded after any change
+    // committed to them before.
+    private int deleteUsersByIdIn(List<Long> idsChunk) {
+        if (userChangeService.isEnabled()) {
+            userRepository.lockUsersByIdIn(idsChunk);
+            userChangeService.recordChanged(idsChunk, UserChangeType.DELETED);
+        }
+        List<UserEntity> watchedUsers = findWatchedUsers(idsChunk);
+        int deleted = userRepository.deleteUsersByIdIn(idsChunk);
+        watchedUsers.forEach(user -> publishChange(UserChangeType.DELETED, user.getId(), null));
+        return deleted;
+    }
+
+    private int updateUserNamesByIdIn(List<Long> idsChunk, UserEntity changes) {
+        int updated = userRepository.updateUserNamesByIdIn(idsChunk, changes.getFirstName(), changes.getLastName());
+        userChangeService.recordChanged(idsChunk, UserChangeType.UPDATED);
+        findWatchedUsers(idsChunk).forEach(user -> publishChange(UserChangeType.UPDATED, user.getId(), user));
+        return updated;
+    }
+
+    // Only the watched users are read, so bulk changes nobody watches cost no extra query.
+    private List<UserEntity> findWatchedUsers(List<Long> idsChunk) {
+        List<Long> watchedIds = userWatchHub.watchedAmong(idsChunk);
+        return watchedIds.isEmpty() ? List.of() : userRepository.findAllById(watchedIds);
+    }
+
+    private void publishChange(UserChangeType type, Long userId, UserEntity user) {
+        eventPublisher.publishEvent(new UserChangedEvent(type, userId, user));
+    }
+
+    private List<Long> validateUserIds(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("User IDs must not be empty");
+        }
+        if (userIds.size() > maxBulkSize) {
+            throw new IllegalArgumentException("Too many user IDs: " + userIds.size() + ". Maximum is " + maxBulkSize);
+        }
+
+        Set<Long> uniqueIds = new LinkedHashSet<>(userIds.size());
+        for (Long userId : userIds) {
+            if (userId == null || userId <= 0) {
+                throw new InvalidUserIdException(userId);
+            }
+            uniqueIds.add(userId);
+        }
+        return new ArrayList<>(uniqueIds);
+    }
+
+    private void validateNameChanges(UserEntity changes) {
+        if (changes == null || (changes.getFirstName() == null && changes.getLastName() == null)) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        if (changes.getEmail() != null) {
+            throw new IllegalArgumentException("Email cannot be changed in bulk");
+        }
+
+        validateChangedField("firstName", changes.getFirstName());
+        validateChangedField("lastName", changes.getLastName());
+    }
+
+    private void validateChangedField(String field, String value) {
+        if (value == null) {
+            return;
+        }
+
+        Set<ConstraintViolation<UserEntity>> violations = validator.validateValue(UserEntity.class, field, value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+    }
+
+    private int importChunk(List<UserEntity> chunk, int[] chunkRowIndexes, List<BulkRowResult> rejectedRows) {
+        BulkCreateResult chunkResult = addUsers(chunk);
+        for (BulkRowResult row : chunkResult.getRows()) {
+            if (row.getStatus() != BulkRowStatus.CREATED) {
+                reportRejection(rejectedRows, new BulkRowResult(chunkRowIndexes[row.getIndex()],
+                        row.getStatus(), null, row.getMessage()));
+            }
+        }
+        return chunkResult.getCreated();
+    }
+
+    // Without the parser location Jackson appends, which would echo the request source back.
+    private static String originalMessage(RuntimeException ex) {
+        return ex.getCause() instanceof JsonProcessingException parseException
+                ? parseException.getOriginalMessage()
+                : ex.getMessage();
+    }
+
+    private void reportRejection(List<BulkRowResult> rejectedRows, BulkRowResult rejectedRow) {
+        if (rejectedRows.size() < maxReportedRejections) {
+            rejectedRows.add(rejectedRow);
+        }
+    }
+
+    private void evictCachedUsers(List<Long> userIds) {
+        Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (usersCache != null) {
+            userIds.forEach(usersCache::evict);
+        }
+        userByIdFlight.forgetAfterCommit(userIds);
+        allUsersFlight.forgetAfterCommit(UserService.ALL_USERS_KEY);
+    }
+
+    private void insertNewUsers(List<UserEntity> usersToAdd, List<Integer> candidateIndexes, BulkRowResult[] rows) {
+        Set<String> existingEmails = findExistingEmails(usersToAdd, candidateIndexes);
+
+        List<UserEntity> usersToPersist = new ArrayList<>(candidateIndexes.size());
+        for (int index : candidateIndexes) {
+            UserEntity userToAdd = usersToAdd.get(index);
+            if (existingEmails.contains(userToAdd.getEmail())) {
+                rows[index] = new BulkRowResult(index, BulkRowStatus.CONFLICT, null,
+                        "Email already exists: " + userToAdd.getEmail());
+            } else {
+                usersToPersist.add(userToAdd);
+            }
+        }
+
+        persistInChunks(usersToPersist);
+        allUsersFlight.forgetAfterCommit(UserService.ALL_USERS_KEY);
+    }
+
+    // The rolled back attempt left ids on the entities, which would make them look already saved.
+    private BulkRowResult insertAlone(UserEntity userToAdd, int index) {
+        userToAdd.setId(null);
+        userToAdd.setVersion(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                persistInChunks(List.of(userToAdd));
+                allUsersFlight.forgetAfterCommit(UserService.ALL_USERS_KEY);
+            });
+            return new BulkRowResult(index, BulkRowStatus.CREATED, userToAdd.getId(), null);
+        } catch (DataIntegrityViolationException ex) {
+            return new BulkRowResult(index, BulkRowStatus.CONFLICT, null, "Email already exists: " + userToAdd.getEmail());
+        }
+    }
+
+    private List<Integer> validateAndDeduplicate(List<UserEntity> usersToAdd, BulkRowResult[] rows) {
+        List<Integer> candidateIndexes = new ArrayList<>(usersToAdd.size());
+        Set<String> requestEmails = new HashSet<>();
+
+        for (int index = 0; index < usersToAdd.size(); index++) {
+            UserEntity userToAdd = usersToAdd.get(index);
+            if (userToAdd == null) {
+                rows[index] = new BulkRowResult(index, BulkRowStatus.INVALID, null, "User must not be null");
+                continue;
+            }
+
+            Set<ConstraintViolation<UserEntity>> violations = validator.validate(userToAdd);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                rows[index] = new BulkRowResult(index, BulkRowStatus.INVALID, null, message);
+                continue;
+            }
+
+            if (!requestEmails.add(userToAdd.getEmail())) {
+                rows[index] = new BulkRowResult(index, BulkRowStatus.CONFLICT, null,
+                        "Duplicate email in request: " + userToAdd.getEmail());
+                continue;
+            }
+
+            userToAdd.setId(null);
+            userToAdd.setVersion(null);
+            candidateIndexes.add(index);
+        }
+
+        return candidateIndexes;
+    }
+
+    private Set<String> findExistingEmails(List<UserEntity> usersToAdd, List<Integer> candidateIndexes) {
+        Set<String> existingEmails = new HashSet<>();
+
+        for (int from = 0; from < candidateIndexes.size(); from += flushSize) {
+            List<String> emailsChunk = candidateIndexes.subList(from, Math.min(from + flushSize, candidateIndexes.size()))
+                    .stream()
+                    .map(index -> usersToAdd.get(index).getEmail())
+                    .toList();
+            existingEmails.addAll(userRepository.findExistingEmails(emailsChunk));
+        }
+
+        return existingEmails;
+    }
+
+    // Bulk statements bypass the sharded service's id allocation and email directory.
+    private void rejectWhenSharded() {
+        if (shardingEnabled) {
+            throw new UnsupportedUserOperationException("Bulk operations are not supported when users are sharded");
+        }
+    }
+
+    private void persistInChunks(List<UserEntity> usersToPersist) {
+        for (int from = 0; from < usersToPersist.size(); from += flushSize) {
+            List<UserEntity> usersChunk = usersToPersist.subList(from, Math.min(from + flushSize, usersToPersist.size()));
+            userRepository.saveAll(usersChunk);
+            userRepository.flush();
+            List<Long> idsChunk = usersChunk.stream().map(UserEntity::getId).toList();
+            userChangeService.recordChanged(idsChunk, UserChangeType.CREATED);
+            Set<Long> watchedIds = new HashSet<>(userWatchHub.watchedAmong(idsChunk));
+            usersChunk.stream()
+                    .filter(user -> watchedIds.contains(user.getId()))
+                    .forEach(user -> publishChange(UserChangeType.CREATED, user.getId(), user));
+            entityManager.clear();
+        }
+    }
+}
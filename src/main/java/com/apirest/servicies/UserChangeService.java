@@ -0,0 +1,130 @@
+package com.apirest.servicies;
+
+import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.exceptions.UnsupportedUserOperationException;
+import com.apirest.models.UserChange;
+import com.apirest.models.UserChangeType;
+import com.apirest.models.UserEntity;
+import com.apirest.repositories.UserChangeRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The transactional outbox of user changes. Writers record their changes in their own transaction,
+ * so a change is published if and only if it commits. Consumers read the published changes in
+ * sequence order, resuming after the last sequence number they have seen.
+ * <p>
+ * Not available when users are sharded: each shard would have its own outbox and sequence.
+ */
+@Service
+public class UserChangeService {
+    public static final int DEFAULT_CHANGES_LIMIT = 10000;
+    public static final int MAX_CHANGES_LIMIT = 100000;
+
+    @Autowired
+    private UserChangeRepository userChangeRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${users.outbox.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${users.sharding.enabled:false}")
+    private boolean shardingEnabled;
+
+    public boolean isEnabled() {
+        return enabled && !shardingEnabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(UserEntity user) {
+        if (isEnabled()) {
+            userChangeRepository.save(UserChange.builder()
+                    .userId(user.getId())
+                    .type(UserChangeType.CREATED)
+                    .firstName(user.getFirstName())
+                    .lastName(user.getLastName())
+                    .email(user.getEmail())
+                    .version(user.getVersion())
+                    .changedAt(Instant.now())
+                    .build());
+        }
+    }
+
+    // The users must be flushed and their rows locked, so the recorded values are the ones committed.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(Collection<Long> userIds, UserChangeType type) {
+        if (isEnabled() && !userIds.isEmpty()) {
+            userChangeRepository.insertChangesOfUsers(userIds, type.name());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long userId) {
+        if (isEnabled()) {
+            userChangeRepository.save(UserChange.builder()
+                    .userId(userId)
+                    .type(UserChangeType.DELETED)
+                    .changedAt(Instant.now())
+                    .build());
+        }
+    }
+
+    // Checked before a response starts streaming, so a bad request still gets a proper error.
+    // Neither this nor streamChanges is read-only: the outbox is only kept on the primary, and
+    // read-only transactions may go to a replica.
+    @Transactional
+    public void validateChangesRequest(long since, int limit) {
+        rejectWhenDisabled();
+        if (since < 0) {
+            throw new IllegalArgumentException("Invalid change sequence number: " + since);
+        }
+        if (limit <= 0 || limit > MAX_CHANGES_LIMIT) {
+            throw new IllegalArgumentException("Invalid changes limit: " + limit + ". Must be between 1 and " + MAX_CHANGES_LIMIT);
+        }
+
+        try {
+            Long firstSequenceNumber = userChangeRepository.findFirstSequenceNumber();
+            if (firstSequenceNumber != null && since + 1 < firstSequenceNumber) {
+                throw new IllegalArgumentException("Changes after " + since + " are no longer retained, "
+                        + "the oldest one is " + firstSequenceNumber + ". Re-read all users from /api/users/stream.");
+            }
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error reading user changes: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional
+    public void streamChanges(long since, int limit, Consumer<UserChange> changeConsumer) {
+        rejectWhenDisabled();
+        try (Stream<UserChange> changes = userChangeRepository.streamPublishedAfter(since, Limit.of(limit))) {
+            changes.forEach(change -> {
+                changeConsumer.accept(change);
+                entityManager.detach(change);
+            });
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error reading user changes: " + ex.getMessage());
+        }
+    }
+
+    private void rejectWhenDisabled() {
+        if (!isEnabled()) {
+            throw new UnsupportedUserOperationException("User changes are not recorded when the outbox is disabled or users are sharded");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.apirest.servicies;
+
+import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.exceptions.IngestionQueueFullException;
+import com.apirest.models.BulkRowResult;
+import com.apirest.models.BulkRowStatus;
+import com.apirest.models.IngestionStatus;
+import com.apirest.models.IngestionTicket;
+import com.apirest.models.UserEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class UserIngestionService {
+    private static final Logger log = LoggerFactory.getLogger(UserIngestionService.class);
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${users.ingestion.async-enabled:false}")
+    private boolean enabled;
+
+    @Value("${users.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${users.ingestion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${users.ingestion.status-ttl:10m}")
+    private Duration statusTimeToLive;
+
+    @Value("${users.ingestion.max-tickets:100000}")
+    private long maxTickets;
+
+    @Value("${users.sharding.enabled:false}")
+    private boolean shardingEnabled;
+
+    private BlockingQueue<PendingUser> queue;
+    private Cache<String, IngestionTicket> tickets;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Bounded as well as expiring, so a signup spike cannot fill the heap with statuses; an
+        // evicted ticket is reported as not found, as an expired one.
+        tickets = Caffeine.newBuilder()
+                .maximumSize(maxTickets)
+                .expireAfterWrite(statusTimeToLive)
+                .build();
+        Gauge.builder("users.ingestion.queue.size", queue, BlockingQueue::size)
+                .description("Users waiting to be written by the ingestion writer")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("user-ingestion-writer")
+                .daemon()
+                .start(this::drainQueue);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public IngestionTicket submit(UserEntity userToAdd) {
+        if (!enabled) {
+            throw new IllegalStateException("Asynchronous ingestion is disabled");
+        }
+
+        String trackingId = UUID.randomUUID().toString();
+        IngestionTicket ticket = new IngestionTicket(trackingId, IngestionStatus.PENDING, null, null);
+        tickets.put(trackingId, ticket);
+
+        if (!running || !queue.offer(new PendingUser(trackingId, userToAdd))) {
+            tickets.invalidate(trackingId);
+            throw new IngestionQueueFullException("Ingestion queue is full, please retry later");
+        }
+
+        return ticket;
+    }
+
+    public Optional<IngestionTicket> getTicket(String trackingId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(tickets.getIfPresent(trackingId));
+    }
+
+    private void drainQueue() {
+        List<PendingUser> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingUser first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Unexpected error writing ingestion batch of {} users", batch.size(), ex);
+                batch.forEach(pendingUser -> complete(pendingUser, IngestionStatus.REJECTED, null, ex.getMessage()));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingUser> batch) {
+        // Bulk inserts are not supported across shards; each user goes to its own shard instead.
+        if (shardingEnabled) {
+            batch.forEach(this::writeSingle);
+            return;
+        }
+
+        List<UserEntity> users = batch.stream().map(PendingUser::user).toList();
+
+        List<BulkRowResult> rows;
+        try {
+            rows = userBulkService.addUsers(users).getRows();
+        } catch (DataBaseErrorException ex) {
+            // The batch failed as a whole; fall back to one transaction per user so
+            // only the failing rows are rejected.
+            batch.forEach(this::writeSingle);
+            return;
+        }
+
+        for (BulkRowResult row : rows) {
+            PendingUser pendingUser = batch.get(row.getIndex());
+            if (row.getStatus() == BulkRowStatus.CREATED) {
+                complete(pendingUser, IngestionStatus.PERSISTED, row.getUserId(), null);
+            } else {
+                complete(pendingUser, IngestionStatus.REJECTED, null, row.getMessage());
+            }
+        }
+    }
+
+    private void writeSingle(PendingUser pendingUser) {
+        try {
+            pendingUser.user().setId(null);
+            pendingUser.user().setVersion(null);
+            userService.addUser(pendingUser.user());
+            complete(pendingUser, IngestionStatus.PERSISTED, pendingUser.user().getId(), null);
+        } catch (RuntimeException ex) {
+            // Only this user is rejected: the ones before it in the batch are already committed.
+            complete(pendingUser, IngestionStatus.REJECTED, null, ex.getMessage());
+        }
+    }
+
+    private void complete(PendingUser pendingUser, IngestionStatus status, Long userId, String message) {
+        tickets.put(pendingUser.trackingId(), new IngestionTicket(pendingUser.trackingId(), status, userId, message));
+    }
+
+    private record PendingUser(String trackingId, UserEntity user) {
+    }
+}
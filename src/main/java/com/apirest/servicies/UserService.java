@@ -1,40 +1,166 @@
 package com.apirest.servicies;
 
+import com.apirest.config.CacheConfig;
 import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.exceptions.InvalidUserIdException;
 import com.apirest.exceptions.UserNotFoundException;
+import com.apirest.exceptions.UserVersionMismatchException;
+import com.apirest.models.UserChangeType;
+import com.apirest.models.UserCollectionVersion;
 import com.apirest.models.UserEntity;
+import com.apirest.models.UserPage;
+import com.apirest.models.UserSummary;
+import com.apirest.models.UserViewPage;
+import com.apirest.replication.ReadYourWritesTracker;
 import com.apirest.repositories.UserRepository;
+import com.apirest.singleflight.SingleFlight;
+import com.apirest.watch.UserChangedEvent;
+import com.apirest.watch.UserWatchHub;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    public static final String ALL_USERS_KEY = "all";
+    public static final List<String> USER_VIEW_FIELDS = List.of("id", "firstName", "lastName", "email");
+
+    private static final String CURSOR_PREFIX = "id:";
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private UserChangeService userChangeService;
+
+    @Autowired
+    private UserWatchHub userWatchHub;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SingleFlight<Long, UserEntity> userByIdFlight;
+
+    @Autowired
+    private SingleFlight<String, List<UserEntity>> allUsersFlight;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${users.replicas.enabled:false}")
+    private boolean replicasEnabled;
+
+    @Timed(value = "users.service", histogram = true)
     @Transactional
     public void addUser(UserEntity userToAdd) {
         try {
             userRepository.save(userToAdd);
+            userChangeService.recordCreated(userToAdd);
+            publishChange(UserChangeType.CREATED, userToAdd.getId(), userToAdd);
+            forgetInFlightLookups(userToAdd.getId());
         } catch (DataAccessException ex) {
             throw new DataBaseErrorException("Error creating user: " + ex.getMessage());
         }
     }
 
+    @Timed(value = "users.service", histogram = true)
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#userId", unless = "#root.target.isReadingReplica()")
     public UserEntity getUserById(Long userId) {
         if (userId <= 0) {
-            throw new IllegalArgumentException("Invalid user ID: " + userId);
+            throw new InvalidUserIdException(userId);
         }
 
+        return userByIdFlight.execute(userId, () -> findUserById(userId));
+    }
+
+    // Replicas lag the primary, so what they return is never cached: a client pinned to the primary
+    // after a write reads through the same cache and must not find the old row there.
+    public boolean isReadingReplica() {
+        return replicasEnabled && !ReadYourWritesTracker.isPinnedToPrimary();
+    }
+
+    // Runs once for all the concurrent cache misses of a user.
+    protected UserEntity findUserById(Long userId) {
         return userRepository.findById(userId)
-                .orElseThrow(() -> new  UserNotFoundException("User with ID: " + userId + " not found."));
+                .orElseThrow(() -> new UserNotFoundException(userId));
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    public UserEntity getUserByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Invalid email: " + email);
+        }
+
+        try {
+            return userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UserNotFoundException("User with email: " + email + " not found."));
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error searching users: " + ex.getMessage());
+        }
     }
 
+    @Timed(value = "users.service", histogram = true)
+    public List<UserEntity> searchUsersByLastNamePrefix(String lastNamePrefix, int limit) {
+        if (lastNamePrefix == null || lastNamePrefix.isBlank()) {
+            throw new IllegalArgumentException("Invalid last name prefix: " + lastNamePrefix);
+        }
+        validatePageSize(limit);
+
+        try {
+            return userRepository.findByLastNameStartingWithOrderByLastNameAscFirstNameAscIdAsc(lastNamePrefix, Limit.of(limit));
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error searching users: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    public List<UserEntity> searchUsersByName(String firstName, String lastName, int limit) {
+        if (firstName == null || firstName.isBlank() || lastName == null || lastName.isBlank()) {
+            throw new IllegalArgumentException("Invalid name: " + firstName + " " + lastName);
+        }
+        validatePageSize(limit);
+
+        try {
+            return userRepository.findByFirstNameAndLastNameOrderByIdAsc(firstName, lastName, Limit.of(limit));
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error searching users: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
     public List<UserEntity> getAllUsers() {
+        return allUsersFlight.execute(ALL_USERS_KEY, () -> Collections.unmodifiableList(findAllUsers()));
+    }
+
+    protected List<UserEntity> findAllUsers() {
         try {
             return userRepository.findAll();
         } catch (DataAccessException ex) {
@@ -42,40 +168,314 @@ public class UserService {
         }
     }
 
+    @Timed(value = "users.service", histogram = true)
+    public UserCollectionVersion getUsersVersion() {
+        try {
+            return userRepository.findCollectionVersion();
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error reading users version: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    public UserPage getUsersPage(String cursor, int limit) {
+        validatePageSize(limit);
+
+        Long lastSeenId = decodeCursor(cursor);
+
+        try {
+            List<UserEntity> users = userRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(limit + 1));
+            if (users.size() <= limit) {
+                return new UserPage(users, null);
+            }
+
+            List<UserEntity> pageUsers = users.subList(0, limit);
+            return new UserPage(pageUsers, encodeCursor(pageUsers.get(limit - 1).getId()));
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error listing users: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional(readOnly = true)
+    public UserSummary getUserSummaryById(Long userId) {
+        validateUserId(userId);
+
+        try {
+            return userRepository.findSummaryById(userId)
+                    .orElseThrow(() -> new UserNotFoundException(userId));
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error getting user: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserFieldsById(Long userId, Set<String> fields) {
+        validateUserId(userId);
+        Set<String> selectedFields = selectFields(fields);
+
+        try {
+            Map<String, Object> userFields = userRepository.findFieldsById(userId, selectedFields)
+                    .orElseThrow(() -> new UserNotFoundException(userId));
+            return retainSelectedFields(userFields, selectedFields);
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error getting user: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional(readOnly = true)
+    public UserViewPage<UserSummary> getUserSummariesPage(String cursor, int limit) {
+        validatePageSize(limit);
+        Long lastSeenId = decodeCursor(cursor);
+
+        try {
+            List<UserSummary> summaries = userRepository.findSummariesByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(limit + 1));
+            if (summaries.size() <= limit) {
+                return new UserViewPage<>(summaries, null);
+            }
+
+            List<UserSummary> pageSummaries = summaries.subList(0, limit);
+            return new UserViewPage<>(pageSummaries, encodeCursor(pageSummaries.get(limit - 1).id()));
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error listing users: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional(readOnly = true)
+    public UserViewPage<Map<String, Object>> getUserFieldsPage(String cursor, int limit, Set<String> fields) {
+        validatePageSize(limit);
+        Set<String> selectedFields = selectFields(fields);
+        Long lastSeenId = decodeCursor(cursor);
+
+        try {
+            List<Map<String, Object>> rows = userRepository.findFieldsByIdGreaterThan(lastSeenId, selectedFields, limit + 1);
+            String nextCursor = rows.size() > limit ? encodeCursor((Long) rows.get(limit - 1).get("id")) : null;
+
+            List<Map<String, Object>> pageRows = rows.subList(0, Math.min(limit, rows.size())).stream()
+                    .map(row -> retainSelectedFields(row, selectedFields))
+                    .toList();
+            return new UserViewPage<>(pageRows, nextCursor);
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error listing users: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserEntity> userConsumer) {
+        try (Stream<UserEntity> users = userRepository.streamAllOrderedById()) {
+            users.forEach(user -> {
+                userConsumer.accept(user);
+                entityManager.detach(user);
+            });
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error streaming users: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userIdToUpdate")
     public void updateUserById(Long userIdToUpdate, UserEntity updatedUser) {
         if (userIdToUpdate == null || userIdToUpdate <= 0) {
-            throw new IllegalArgumentException("Invalid user ID: " + userIdToUpdate);
+            throw new InvalidUserIdException(userIdToUpdate);
         }
+        validateUser(updatedUser);
 
         try {
-            UserEntity userToUpdate = getUserById(userIdToUpdate);
-            updateUserData(userToUpdate, updatedUser);
-            userRepository.save(userToUpdate);
+            int updatedRows = userRepository.updateUserById(userIdToUpdate,
+                    updatedUser.getFirstName(), updatedUser.getLastName(), updatedUser.getEmail());
+            if (updatedRows == 0) {
+                throw new UserNotFoundException(userIdToUpdate);
+            }
+            userChangeService.recordChanged(List.of(userIdToUpdate), UserChangeType.UPDATED);
+            publishUpdated(userIdToUpdate);
+            forgetInFlightLookups(userIdToUpdate);
         } catch (DataAccessException ex) {
             throw new DataBaseErrorException("Error updating user: " + ex.getMessage());
         }
     }
 
+    @Timed(value = "users.service", histogram = true)
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userIdToUpdate")
+    public void updateUserById(Long userIdToUpdate, UserEntity updatedUser, Long expectedVersion) {
+        if (userIdToUpdate == null || userIdToUpdate <= 0) {
+            throw new InvalidUserIdException(userIdToUpdate);
+        }
+        validateUser(updatedUser);
+        if (expectedVersion == null || expectedVersion < 0) {
+            throw new IllegalArgumentException("Invalid user version: " + expectedVersion);
+        }
+
+        try {
+            int updatedRows = userRepository.updateUserByIdAndVersion(userIdToUpdate, expectedVersion,
+                    updatedUser.getFirstName(), updatedUser.getLastName(), updatedUser.getEmail());
+            if (updatedRows == 0) {
+                if (!userRepository.existsById(userIdToUpdate)) {
+                    throw new UserNotFoundException(userIdToUpdate);
+                }
+                throw new UserVersionMismatchException("User with ID: " + userIdToUpdate + " is no longer at version " + expectedVersion + ".");
+            }
+            userChangeService.recordChanged(List.of(userIdToUpdate), UserChangeType.UPDATED);
+            publishUpdated(userIdToUpdate);
+            forgetInFlightLookups(userIdToUpdate);
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error updating user: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userIdToPatch")
+    public void patchUserById(Long userIdToPatch, UserEntity changes) {
+        if (userIdToPatch == null || userIdToPatch <= 0) {
+            throw new InvalidUserIdException(userIdToPatch);
+        }
+        if (changes == null || (changes.getFirstName() == null && changes.getLastName() == null && changes.getEmail() == null)) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+
+        validateChangedField("firstName", changes.getFirstName());
+        validateChangedField("lastName", changes.getLastName());
+        validateChangedField("email", changes.getEmail());
+
+        try {
+            int updatedRows = userRepository.patchUserById(userIdToPatch, changes);
+            if (updatedRows == 0) {
+                throw new UserNotFoundException(userIdToPatch);
+            }
+            userChangeService.recordChanged(List.of(userIdToPatch), UserChangeType.UPDATED);
+            publishUpdated(userIdToPatch);
+            forgetInFlightLookups(userIdToPatch);
+        } catch (DataAccessException ex) {
+            throw new DataBaseErrorException("Error updating user: " + ex.getMessage());
+        }
+    }
+
+    @Timed(value = "users.service", histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userId")
     public void deleteUser(Long userId) {
         if (userId == null || userId <= 0) {
-            throw new IllegalArgumentException("Invalid user ID: " + userId);
+            throw new InvalidUserIdException(userId);
         }
 
         try {
-            UserEntity userToDelete = userRepository.findById(userId)
-                    .orElseThrow(() -> new UserNotFoundException("User with ID: " + userId + " not found."));
-
-            userRepository.delete(userToDelete);
+            int deletedRows = userRepository.deleteUserById(userId);
+            if (deletedRows == 0) {
+                throw new UserNotFoundException(userId);
+            }
+            userChangeService.recordDeleted(userId);
+            publishChange(UserChangeType.DELETED, userId, null);
+            forgetInFlightLookups(userId);
         } catch (DataAccessException ex) {
             throw new DataBaseErrorException("Error deleting user: " + ex.getMessage());
         }
     }
 
-    private void updateUserData(UserEntity userToUpdate, UserEntity updatedUser) {
-        userToUpdate.setFirstName(updatedUser.getFirstName());
-        userToUpdate.setLastName(updatedUser.getLastName());
-        userToUpdate.setEmail(updatedUser.getEmail());
+    // After commit, like the cache eviction, so a later lookup does not join a query that read the old row.
+    protected void forgetInFlightLookups(Long userId) {
+        userByIdFlight.forgetAfterCommit(userId);
+        allUsersFlight.forgetAfterCommit(ALL_USERS_KEY);
+    }
+
+    // Watchers get the user as it is after the change, so it is read again, but only when watched.
+    private void publishUpdated(Long userId) {
+        if (userWatchHub.isWatched(userId)) {
+            userRepository.findById(userId).ifPresent(user -> publishChange(UserChangeType.UPDATED, userId, user));
+        }
+    }
+
+    protected void publishChange(UserChangeType type, Long userId, UserEntity user) {
+        if (userWatchHub.isWatched(userId)) {
+            eventPublisher.publishEvent(new UserChangedEvent(type, userId, user));
+        }
+    }
+
+    private void validateUserId(Long userId) {
+        if (userId == null || userId <= 0) {
+            throw new InvalidUserIdException(userId);
+        }
+    }
+
+    private Set<String> selectFields(Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("No fields selected. Available fields: " + USER_VIEW_FIELDS);
+        }
+
+        Set<String> unknownFields = new LinkedHashSet<>(fields);
+        USER_VIEW_FIELDS.forEach(unknownFields::remove);
+        if (!unknownFields.isEmpty()) {
+            throw new IllegalArgumentException("Unknown fields: " + unknownFields + ". Available fields: " + USER_VIEW_FIELDS);
+        }
+
+        Set<String> selectedFields = new LinkedHashSet<>();
+        for (String field : USER_VIEW_FIELDS) {
+            if (fields.contains(field)) {
+                selectedFields.add(field);
+            }
+        }
+        return selectedFields;
+    }
+
+    private Map<String, Object> retainSelectedFields(Map<String, Object> row, Set<String> selectedFields) {
+        if (!selectedFields.contains("id")) {
+            row.remove("id");
+        }
+        return row;
+    }
+
+    private void validatePageSize(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Invalid page size: " + limit + ". Must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // The update statements bypass the entity lifecycle, so nothing else validates a replaced user.
+    protected void validateUser(UserEntity user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User must not be null");
+        }
+
+        Set<ConstraintViolation<UserEntity>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+    }
+
+    private void validateChangedField(String propertyName, String value) {
+        if (value == null) {
+            return;
+        }
+
+        Set<ConstraintViolation<UserEntity>> violations = validator.validateValue(UserEntity.class, propertyName, value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+    }
+
+    static String encodeCursor(Long lastSeenId) {
+        byte[] cursorBytes = (CURSOR_PREFIX + lastSeenId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursorBytes);
+    }
+
+    static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
     }
 }
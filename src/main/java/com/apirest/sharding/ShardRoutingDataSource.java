@@ -0,0 +1,27 @@
+package com.apirest.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard selected on the calling thread, or of the first shard when
+ * none is, which is where Flyway and Hibernate look at the schema on startup.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    public ShardRoutingDataSource(UserShards userShards) {
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < userShards.size(); shard++) {
+            shards.put(shard, userShards.getDataSource(shard));
+        }
+        setTargetDataSources(shards);
+        setDefaultTargetDataSource(userShards.getDataSource(0));
+        initialize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return UserShards.currentShard();
+    }
+}
@@ -0,0 +1,77 @@
+package com.apirest.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.support.SQLExceptionSubclassTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@code user_emails} table spread over the shards by email. Claiming an email is a single
+ * insert on its shard, so the primary key keeps it unique across all shards.
+ * <p>
+ * The directory has its own pools: a change of email claims the new one while its transaction
+ * holds the user's row, and sharing the row pools would let those callers wait on each other.
+ */
+public class UserEmailDirectory implements AutoCloseable {
+    private static final SQLExceptionTranslator EXCEPTION_TRANSLATOR = new SQLExceptionSubclassTranslator();
+
+    private final UserShards userShards;
+    private final List<HikariDataSource> dataSources;
+
+    public UserEmailDirectory(UserShards userShards, List<HikariDataSource> dataSources) {
+        if (dataSources.size() != userShards.size()) {
+            throw new IllegalArgumentException("Expected one directory datasource per shard, got " + dataSources.size());
+        }
+        this.userShards = userShards;
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public void claim(String email, long userId) {
+        update("insert into user_emails (email, user_id) values (?, ?)", email, userId);
+    }
+
+    public void release(String email, long userId) {
+        update("delete from user_emails where email = ? and user_id = ?", email, userId);
+    }
+
+    public Optional<Long> findUserId(String email) {
+        String sql = "select user_id from user_emails where email = ?";
+        try (Connection connection = connectionFor(email);
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, email);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Optional.of(resultSet.getLong(1)) : Optional.empty();
+            }
+        } catch (SQLException ex) {
+            throw EXCEPTION_TRANSLATOR.translate("findUserId", sql, ex);
+        }
+    }
+
+    // Plain JDBC rather than JdbcTemplate: inside the caller's transaction JdbcTemplate would keep
+    // the connection until that transaction ends. Each statement commits on its own instead.
+    private void update(String sql, String email, long userId) {
+        try (Connection connection = connectionFor(email);
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, email);
+            statement.setLong(2, userId);
+            statement.executeUpdate();
+        } catch (SQLException ex) {
+            throw EXCEPTION_TRANSLATOR.translate("update", sql, ex);
+        }
+    }
+
+    private Connection connectionFor(String email) throws SQLException {
+        return dataSources.get(userShards.shardForEmail(email)).getConnection();
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
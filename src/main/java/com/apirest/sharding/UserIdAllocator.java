@@ -0,0 +1,55 @@
+package com.apirest.sharding;
+
+import org.springframework.jdbc.support.SQLExceptionSubclassTranslator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates user ids before the owning shard is known. The first shard's {@code users_seq} hands
+ * out blocks of {@link #BLOCK_SIZE} ids, so only one call in fifty reaches the database.
+ */
+public class UserIdAllocator {
+    // The increment of users_seq in V1__create_users.
+    static final int BLOCK_SIZE = 50;
+
+    private static final String NEXT_BLOCK_SQL = "select next value for users_seq";
+
+    private final DataSource sequenceDataSource;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextId;
+    private long blockEnd;
+
+    public UserIdAllocator(DataSource sequenceDataSource) {
+        this.sequenceDataSource = sequenceDataSource;
+    }
+
+    public long nextId() {
+        lock.lock();
+        try {
+            if (nextId == blockEnd) {
+                nextId = nextBlock();
+                blockEnd = nextId + BLOCK_SIZE;
+            }
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Like UserEmailDirectory, bypasses JdbcTemplate so the caller's transaction does not keep the connection.
+    private long nextBlock() {
+        try (Connection connection = sequenceDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(NEXT_BLOCK_SQL)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException ex) {
+            throw new SQLExceptionSubclassTranslator().translate("nextBlock", NEXT_BLOCK_SQL, ex);
+        }
+    }
+}
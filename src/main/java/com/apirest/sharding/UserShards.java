@@ -0,0 +1,74 @@
+package com.apirest.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The shard datasources of the sharded mode. A user's row lives on the shard of its id and its
+ * email directory entry on the shard of its email. The shard selected with {@link #callOn} is
+ * what {@link ShardRoutingDataSource} hands out connections for on the calling thread.
+ */
+public class UserShards implements AutoCloseable {
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    // Spreads consecutive ids, which come in blocks of 50, evenly over the shards.
+    private static final long ID_MIX = 0x9E3779B97F4A7C15L;
+
+    private final List<HikariDataSource> dataSources;
+
+    public UserShards(List<HikariDataSource> dataSources) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    public DataSource getDataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public int shardForUserId(long userId) {
+        return Math.floorMod(Long.hashCode(userId * ID_MIX), dataSources.size());
+    }
+
+    public int shardForEmail(String email) {
+        return Math.floorMod(email.hashCode(), dataSources.size());
+    }
+
+    public <T> T callOn(int shard, Supplier<T> action) {
+        Integer previousShard = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previousShard == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previousShard);
+            }
+        }
+    }
+
+    public void runOn(int shard, Runnable action) {
+        callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,105 @@
+package com.apirest.singleflight;
+
+import com.apirest.replication.ReadYourWritesTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent lookups of the same key: the first caller runs the query and the callers
+ * that arrive while it is in flight wait for its result, or its exception, instead of running
+ * their own. Nothing is kept once the query returns; caching is left to the cache.
+ * <p>
+ * Writers forget the keys they change once they commit, as they evict the cache, so a lookup made
+ * after a write never joins a query that may have read the rows before it.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedLookups;
+    private final Counter coalescedLookups;
+
+    public SingleFlight(String lookup, MeterRegistry meterRegistry) {
+        this.executedLookups = Counter.builder("users.lookups.executed")
+                .description("Lookups that ran their own query")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+        this.coalescedLookups = Counter.builder("users.lookups.coalesced")
+                .description("Lookups that shared the result of a query already in flight")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+    }
+
+    // Callers in a transaction, or pinned to the primary, may need to see their own writes, so
+    // they neither join nor lead a shared query.
+    public V execute(K key, Supplier<V> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive() || ReadYourWritesTracker.isPinnedToPrimary()) {
+            executedLookups.increment();
+            return loader.get();
+        }
+
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leaderFlight = inFlight.putIfAbsent(key, flight);
+        if (leaderFlight != null) {
+            coalescedLookups.increment();
+            return await(leaderFlight);
+        }
+
+        executedLookups.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAfterCommit(K key) {
+        forgetAfterCommit(List.of(key));
+    }
+
+    public void forgetAfterCommit(Collection<K> keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keys.forEach(this::forget);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keys.forEach(SingleFlight.this::forget);
+            }
+        });
+    }
+
+    // The waiters get the exception the leader got, as if they had run the query themselves.
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
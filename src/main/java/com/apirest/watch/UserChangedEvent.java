@@ -0,0 +1,9 @@
+package com.apirest.watch;
+
+import com.apirest.models.UserChangeType;
+import com.apirest.models.UserEntity;
+
+// Published inside the transaction of a write and pushed to watchers once it commits. The user is
+// its state after the change, or null when it was deleted.
+public record UserChangedEvent(UserChangeType type, Long userId, UserEntity user) {
+}
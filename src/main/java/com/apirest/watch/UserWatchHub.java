@@ -0,0 +1,195 @@
+package com.apirest.watch;
+
+import com.apirest.exceptions.WatchLimitExceededException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes committed user changes to the SSE subscribers watching those users, or all users. An idle
+ * subscriber is a suspended async request and an empty buffer, it holds no thread. A change is
+ * serialized once and queued on each watcher's buffer; sends run on virtual threads.
+ * <p>
+ * Writers publish {@link UserChangedEvent}s only when {@link #isWatched} says someone listens, so
+ * writes nobody watches do not pay for them.
+ */
+public class UserWatchHub implements SmartLifecycle {
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int maxUserIds;
+    private final Duration timeout;
+    private final Duration heartbeatInterval;
+    private final Counter overflowedSubscribers;
+
+    private final Set<UserWatchSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Set<UserWatchSubscription> allUsersSubscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<UserWatchSubscription>> subscriptionsByUserId = new ConcurrentHashMap<>();
+    private final Set<DataWithMediaType> heartbeatMessage = SseEmitter.event().comment("heartbeat").build();
+    private final Set<DataWithMediaType> overflowMessage = SseEmitter.event().name("overflow")
+            .data("Too many pending changes, reload the watched users").build();
+
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("users-watch-", 0).factory());
+    private ScheduledExecutorService heartbeatScheduler;
+
+    public UserWatchHub(ObjectMapper objectMapper, MeterRegistry meterRegistry, int bufferSize, int maxSubscribers,
+                        int maxUserIds, Duration timeout, Duration heartbeatInterval) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.maxUserIds = maxUserIds;
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.overflowedSubscribers = Counter.builder("users.watch.overflows")
+                .description("Watch subscribers disconnected because they did not keep up")
+                .register(meterRegistry);
+        Gauge.builder("users.watch.subscribers", subscriptions, Set::size)
+                .description("Open watch subscriptions")
+                .register(meterRegistry);
+    }
+
+    // An empty or missing set of ids watches every user.
+    public SseEmitter subscribe(Set<Long> userIds) {
+        return subscribe(userIds, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Set<Long> userIds, SseEmitter emitter) {
+        Set<Long> watchedIds = userIds == null ? Set.of() : Set.copyOf(userIds);
+        if (watchedIds.size() > maxUserIds) {
+            throw new IllegalArgumentException("Too many user IDs to watch: " + watchedIds.size() + ". Maximum is " + maxUserIds);
+        }
+        for (Long userId : watchedIds) {
+            if (userId <= 0) {
+                throw new IllegalArgumentException("Invalid user ID: " + userId);
+            }
+        }
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new WatchLimitExceededException("Too many watch subscriptions, please retry later");
+        }
+
+        UserWatchSubscription subscription = new UserWatchSubscription(emitter, watchedIds, bufferSize, sender,
+                overflowMessage, overflowedSubscribers::increment, this::unsubscribe);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(ex -> unsubscribe(subscription));
+
+        subscriptions.add(subscription);
+        if (watchedIds.isEmpty()) {
+            allUsersSubscriptions.add(subscription);
+        }
+        for (Long userId : watchedIds) {
+            // compute, not computeIfAbsent: an unsubscribe may be dropping the same set concurrently.
+            subscriptionsByUserId.compute(userId, (id, watchers) -> {
+                Set<UserWatchSubscription> userWatchers = watchers != null ? watchers : ConcurrentHashMap.newKeySet();
+                userWatchers.add(subscription);
+                return userWatchers;
+            });
+        }
+        return emitter;
+    }
+
+    public boolean isWatched(Long userId) {
+        return !allUsersSubscriptions.isEmpty() || subscriptionsByUserId.containsKey(userId);
+    }
+
+    public List<Long> watchedAmong(Collection<Long> userIds) {
+        if (!allUsersSubscriptions.isEmpty()) {
+            return List.copyOf(userIds);
+        }
+
+        List<Long> watchedIds = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (subscriptionsByUserId.containsKey(userId)) {
+                watchedIds.add(userId);
+            }
+        }
+        return watchedIds;
+    }
+
+    // Runs on the writer's thread after its commit, so it only queues the message.
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        Set<DataWithMediaType> message = toMessage(event);
+        allUsersSubscriptions.forEach(subscription -> subscription.offer(message));
+        Set<UserWatchSubscription> watchers = subscriptionsByUserId.get(event.userId());
+        if (watchers != null) {
+            watchers.forEach(subscription -> subscription.offer(message));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private Set<DataWithMediaType> toMessage(UserChangedEvent event) {
+        try {
+            return SseEmitter.event()
+                    .name("user")
+                    .data(objectMapper.writeValueAsString(event), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void unsubscribe(UserWatchSubscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+
+        allUsersSubscriptions.remove(subscription);
+        for (Long userId : subscription.getUserIds()) {
+            subscriptionsByUserId.computeIfPresent(userId, (id, watchers) -> {
+                watchers.remove(subscription);
+                return watchers.isEmpty() ? null : watchers;
+            });
+        }
+    }
+
+    // Also how connections closed without notice are found: sending to them fails.
+    private void sendHeartbeats() {
+        subscriptions.forEach(subscription -> subscription.offer(heartbeatMessage));
+    }
+
+    @Override
+    public void start() {
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("users-watch-heartbeat").daemon().factory());
+        heartbeatScheduler.scheduleWithFixedDelay(this::sendHeartbeats,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        heartbeatScheduler.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.getEmitter().complete());
+        sender.shutdownNow();
+        heartbeatScheduler = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return heartbeatScheduler != null;
+    }
+}
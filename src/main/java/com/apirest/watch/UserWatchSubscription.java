@@ -0,0 +1,105 @@
+package com.apirest.watch;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * One SSE subscriber and its bounded buffer of messages. At most one send task drains the buffer at
+ * a time, so a slow client never blocks the writer that committed a change or other subscribers.
+ */
+final class UserWatchSubscription {
+    private final SseEmitter emitter;
+    private final Set<Long> userIds;
+    private final int capacity;
+    private final Executor sender;
+    private final Set<DataWithMediaType> overflowMessage;
+    private final Runnable onOverflow;
+    private final Consumer<UserWatchSubscription> onClose;
+    private final ArrayDeque<Set<DataWithMediaType>> buffer;
+    private boolean draining;
+    private boolean closing;
+
+    UserWatchSubscription(SseEmitter emitter, Set<Long> userIds, int capacity, Executor sender,
+                          Set<DataWithMediaType> overflowMessage, Runnable onOverflow, Consumer<UserWatchSubscription> onClose) {
+        this.emitter = emitter;
+        this.userIds = userIds;
+        this.capacity = capacity;
+        this.sender = sender;
+        this.overflowMessage = overflowMessage;
+        this.onOverflow = onOverflow;
+        this.onClose = onClose;
+        this.buffer = new ArrayDeque<>(Math.min(capacity, 16));
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    // Empty when the subscriber watches every user.
+    Set<Long> getUserIds() {
+        return userIds;
+    }
+
+    // A full buffer means the client stopped reading: the pending messages are dropped and the
+    // client is told, so it reloads what it watches instead of silently missing changes.
+    void offer(Set<DataWithMediaType> message) {
+        synchronized (this) {
+            if (closing) {
+                return;
+            }
+            if (buffer.size() < capacity) {
+                buffer.add(message);
+            } else {
+                buffer.clear();
+                buffer.add(overflowMessage);
+                closing = true;
+                onOverflow.run();
+            }
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        sender.execute(this::drain);
+    }
+
+    private void drain() {
+        while (true) {
+            Set<DataWithMediaType> message;
+            boolean complete;
+            synchronized (this) {
+                message = buffer.poll();
+                complete = message == null && closing;
+                if (message == null) {
+                    draining = false;
+                }
+            }
+
+            if (message == null) {
+                if (complete) {
+                    emitter.complete();
+                }
+                return;
+            }
+
+            try {
+                emitter.send(message);
+            } catch (IOException | IllegalStateException ex) {
+                // The client is gone. The container completes the request itself, so only stop sending.
+                synchronized (this) {
+                    closing = true;
+                    buffer.clear();
+                    draining = false;
+                }
+                onClose.accept(this);
+                return;
+            }
+        }
+    }
+}
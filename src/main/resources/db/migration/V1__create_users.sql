@@ -0,0 +1,13 @@
+create sequence users_seq start with 1 increment by 50;
+
+create table users (
+    user_id    bigint       not null,
+    first_name varchar(255) not null,
+    last_name  varchar(255) not null,
+    email      varchar(255) not null,
+    version    bigint       default 0 not null,
+    constraint pk_users primary key (user_id),
+    constraint uk_users_email unique (email)
+);
+
+create index idx_users_last_name_first_name on users (last_name, first_name);
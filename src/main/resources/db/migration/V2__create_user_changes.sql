@@ -0,0 +1,16 @@
+-- Outbox of user changes, written in the transaction of the change. The relay publishes them in
+-- change_id order and numbers them with sequence_number, which stays null until then.
+create table user_changes (
+    change_id       bigint generated by default as identity,
+    sequence_number bigint,
+    user_id         bigint                   not null,
+    change_type     varchar(16)              not null,
+    first_name      varchar(255),
+    last_name       varchar(255),
+    email           varchar(255),
+    version         bigint,
+    changed_at      timestamp with time zone not null,
+    constraint pk_user_changes primary key (change_id)
+);
+
+create unique index uk_user_changes_sequence_number on user_changes (sequence_number);
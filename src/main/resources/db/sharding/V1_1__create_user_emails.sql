@@ -0,0 +1,7 @@
+-- Email directory of the sharded mode: each shard holds the emails that hash to it and the id of
+-- the user that owns them, so an email stays unique across every shard's users table.
+create table user_emails (
+    email   varchar(255) not null,
+    user_id bigint       not null,
+    constraint pk_user_emails primary key (email)
+);
@@ -0,0 +1,46 @@
+package com.apirest;
+
+import com.apirest.models.UserEntity;
+import com.apirest.servicies.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("fast-startup")
+class FastStartupProfileTests {
+    @Autowired
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    @DisplayName("Fast startup profile - JPA bootstraps in the background")
+    void fastStartupProfile_JpaBootstrapsInTheBackground() {
+        // Assert
+        assertThat(entityManagerFactoryBean.getBootstrapExecutor()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Fast startup profile - Deferred repositories serve requests")
+    void fastStartupProfile_DeferredRepositoriesServeRequests() {
+        // Arrange
+        UserEntity user = UserEntity.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.fast@example.com")
+                .build();
+
+        // Act
+        userService.addUser(user);
+
+        // Assert
+        assertThat(userService.getUserById(user.getId()).getEmail()).isEqualTo("john.fast@example.com");
+    }
+}
@@ -0,0 +1,78 @@
+package com.apirest;
+
+import com.apirest.models.UserEntity;
+import com.apirest.servicies.UserBulkService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class HttpTransportTests {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Test
+    @DisplayName("Get user over cleartext HTTP/2 - Negotiated with h2c upgrade")
+    void getUserOverCleartextHttp2_NegotiatedWithH2cUpgrade() throws Exception {
+        // Arrange
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/999999")).GET().build();
+
+        // Act
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(response.statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("Get users accepting gzip - Compresses large listings")
+    void getUsersAcceptingGzip_CompressesLargeListings() throws Exception {
+        // Arrange
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(UserEntity.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("transport" + i + "@example.com")
+                    .build());
+        }
+        userBulkService.addUsers(users);
+
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users"))
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+
+        // Act
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        // Assert
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            byte[] json = body.readAllBytes();
+            assertThat(response.body().length).isLessThan(json.length / 2);
+            assertThat(new String(json, StandardCharsets.UTF_8)).contains("transport99@example.com");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.apirest;
+
+import com.apirest.models.UserEntity;
+import com.apirest.repositories.UserRepository;
+import com.apirest.servicies.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProdProfileTests {
+    @TempDir
+    private Path dataDirectory;
+
+    @Test
+    @DisplayName("Prod profile - Users survive a restart of the file database")
+    void prodProfile_UsersSurviveRestart() {
+        // Arrange
+        Long userId;
+        try (ConfigurableApplicationContext context = start()) {
+            UserEntity user = UserEntity.builder()
+                    .firstName("John")
+                    .lastName("Doe")
+                    .email("john.doe@example.com")
+                    .build();
+            context.getBean(UserService.class).addUser(user);
+            userId = user.getId();
+        }
+
+        // Act
+        try (ConfigurableApplicationContext context = start()) {
+            // Assert
+            assertThat(context.getBean(UserRepository.class).findById(userId))
+                    .get()
+                    .extracting(UserEntity::getEmail)
+                    .isEqualTo("john.doe@example.com");
+            assertThat(context.getBean(Flyway.class).info().current().getVersion().getVersion()).isEqualTo("2");
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ApiRestApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                .run("--users.datasource.path=" + dataDirectory.resolve("users"),
+                        "--spring.datasource.hikari.minimum-idle=1");
+    }
+}
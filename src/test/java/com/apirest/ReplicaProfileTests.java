@@ -0,0 +1,152 @@
+package com.apirest;
+
+import com.apirest.exceptions.UserNotFoundException;
+import com.apirest.models.UserEntity;
+import com.apirest.replication.ReadYourWritesTracker;
+import com.apirest.replication.ReplicaSynchronizer;
+import com.apirest.servicies.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The replicas are only synchronized when a test asks for it.
+@SpringBootTest(properties = {"users.replicas.sync-interval=1h", "users.rate-limit.client-header=X-Client-Id"})
+@AutoConfigureMockMvc
+@ActiveProfiles("replicas")
+class ReplicaProfileTests {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicaSynchronizer replicaSynchronizer;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Replicas profile - Writes go to the primary and reads to the replica once it caught up")
+    void replicasProfile_WritesGoToPrimaryAndReadsToReplica() {
+        // Arrange
+        UserEntity user = newUser("Ada", "ada.replica@example.com");
+
+        // Act
+        userService.addUser(user);
+
+        // Assert
+        assertThat(new JdbcTemplate(primaryDataSource)
+                .queryForObject("select count(*) from users where user_id = ?", Integer.class, user.getId()))
+                .isEqualTo(1);
+        assertThatThrownBy(() -> userService.getUserById(user.getId())).isInstanceOf(UserNotFoundException.class);
+        assertThat(userService.getAllUsers()).extracting(UserEntity::getId).doesNotContain(user.getId());
+
+        replicaSynchronizer.synchronizeAll();
+        assertThat(userService.getUserById(user.getId()).getEmail()).isEqualTo("ada.replica@example.com");
+        assertThat(userService.getAllUsers()).extracting(UserEntity::getId).contains(user.getId());
+    }
+
+    @Test
+    @DisplayName("Replicas profile - Synchronizing applies updates and deletes")
+    void replicasProfile_SynchronizingAppliesUpdatesAndDeletes() {
+        // Arrange
+        UserEntity renamed = newUser("Grace", "grace.replica@example.com");
+        UserEntity deleted = newUser("Alan", "alan.replica@example.com");
+        userService.addUser(renamed);
+        userService.addUser(deleted);
+        replicaSynchronizer.synchronizeAll();
+
+        // Act
+        userService.deleteUser(deleted.getId());
+        userService.updateUserById(renamed.getId(), newUser("Grace", "alan.replica@example.com"));
+        replicaSynchronizer.synchronizeAll();
+
+        // Assert
+        assertThat(userService.getUserById(renamed.getId()).getEmail()).isEqualTo("alan.replica@example.com");
+        assertThatThrownBy(() -> userService.getUserById(deleted.getId())).isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Replicas profile - Users that swapped emails are synchronized")
+    void replicasProfile_UsersThatSwappedEmailsAreSynchronized() {
+        // Arrange
+        UserEntity first = newUser("Edsger", "edsger.replica@example.com");
+        UserEntity second = newUser("Tony", "tony.replica@example.com");
+        userService.addUser(first);
+        userService.addUser(second);
+        replicaSynchronizer.synchronizeAll();
+
+        // Act
+        userService.updateUserById(first.getId(), newUser("Edsger", "swapping.replica@example.com"));
+        userService.updateUserById(second.getId(), newUser("Tony", "edsger.replica@example.com"));
+        userService.updateUserById(first.getId(), newUser("Edsger", "tony.replica@example.com"));
+        replicaSynchronizer.synchronizeAll();
+
+        // Assert
+        assertThat(userService.getUserById(first.getId()).getEmail()).isEqualTo("tony.replica@example.com");
+        assertThat(userService.getUserById(second.getId()).getEmail()).isEqualTo("edsger.replica@example.com");
+    }
+
+    @Test
+    @DisplayName("Replicas profile - Pinned reads go to the primary")
+    void replicasProfile_PinnedReadsGoToPrimary() {
+        // Arrange
+        UserEntity user = newUser("Linus", "linus.replica@example.com");
+        userService.addUser(user);
+
+        // Act
+        UserEntity found = ReadYourWritesTracker.callOnPrimary(() -> userService.getUserById(user.getId()));
+
+        // Assert
+        assertThat(found.getEmail()).isEqualTo("linus.replica@example.com");
+    }
+
+    @Test
+    @DisplayName("Replicas profile - A client reads its own writes before the replica caught up")
+    void replicasProfile_ClientReadsItsOwnWrites() throws Exception {
+        // Arrange
+        UserEntity user = newUser("Barbara", "barbara.replica@example.com");
+        userService.addUser(user);
+        replicaSynchronizer.synchronizeAll();
+        mockMvc.perform(get("/api/users/{userId}", user.getId()).header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("barbara.replica@example.com"));
+
+        // Act
+        mockMvc.perform(put("/api/users/{userId}", user.getId())
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Barbara\",\"lastName\":\"Liskov\",\"email\":\"liskov.replica@example.com\"}"))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/api/users/{userId}", user.getId()).header("X-Client-Id", "reader"))
+                .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get("/api/users/{userId}", user.getId()).header("X-Client-Id", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("liskov.replica@example.com"));
+    }
+
+    private static UserEntity newUser(String firstName, String email) {
+        UserEntity user = new UserEntity();
+        user.setFirstName(firstName);
+        user.setLastName("Replica");
+        user.setEmail(email);
+        return user;
+    }
+}
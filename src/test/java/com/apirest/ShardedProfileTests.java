@@ -0,0 +1,191 @@
+package com.apirest;
+
+import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.exceptions.UnsupportedUserOperationException;
+import com.apirest.exceptions.UserNotFoundException;
+import com.apirest.models.IngestionStatus;
+import com.apirest.models.IngestionTicket;
+import com.apirest.models.UserEntity;
+import com.apirest.models.UserPage;
+import com.apirest.servicies.UserBulkService;
+import com.apirest.servicies.UserIngestionService;
+import com.apirest.servicies.UserService;
+import com.apirest.sharding.UserShards;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "users.ingestion.async-enabled=true")
+@ActiveProfiles("sharded")
+class ShardedProfileTests {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private UserShards userShards;
+
+    @Autowired
+    private UserIngestionService userIngestionService;
+
+    @Test
+    @DisplayName("Sharded profile - Users are stored on the shard of their id")
+    void shardedProfile_UsersAreStoredOnTheShardOfTheirId() {
+        // Arrange
+        List<UserEntity> users = addUsers("placement", 40);
+
+        // Act
+        Set<Integer> usedShards = new HashSet<>();
+        for (UserEntity user : users) {
+            int shard = userShards.shardForUserId(user.getId());
+            usedShards.add(shard);
+
+            // Assert
+            assertThat(countRows(shard, user.getId())).isEqualTo(1);
+            assertThat(userService.getUserById(user.getId()).getEmail()).isEqualTo(user.getEmail());
+        }
+        assertThat(usedShards).hasSize(userShards.size());
+    }
+
+    @Test
+    @DisplayName("Sharded profile - An email is unique across shards")
+    void shardedProfile_EmailIsUniqueAcrossShards() {
+        // Arrange
+        UserEntity user = addUsers("unique", 1).get(0);
+        UserEntity duplicate = newUser("Jane", "unique0@example.com");
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.addUser(duplicate)).isInstanceOf(DataBaseErrorException.class);
+        assertThat(userService.getUserByEmail("unique0@example.com").getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    @DisplayName("Sharded profile - Changing or deleting a user releases its email")
+    void shardedProfile_ChangingOrDeletingReleasesEmail() {
+        // Arrange
+        UserEntity user = addUsers("moved", 1).get(0);
+        UserEntity other = addUsers("taken", 1).get(0);
+
+        // Act
+        userService.updateUserById(user.getId(), newUser("John", "moved-new@example.com"));
+        UserEntity reusingOldEmail = newUser("Jim", "moved0@example.com");
+        userService.addUser(reusingOldEmail);
+        userService.deleteUser(other.getId());
+        UserEntity reusingDeletedEmail = newUser("Joe", "taken0@example.com");
+        userService.addUser(reusingDeletedEmail);
+
+        // Assert
+        assertThat(userService.getUserByEmail("moved-new@example.com").getId()).isEqualTo(user.getId());
+        assertThat(userService.getUserByEmail("moved0@example.com").getId()).isEqualTo(reusingOldEmail.getId());
+        assertThat(userService.getUserByEmail("taken0@example.com").getId()).isEqualTo(reusingDeletedEmail.getId());
+        assertThatThrownBy(() -> userService.patchUserById(user.getId(), UserEntity.builder().email("taken0@example.com").build()))
+                .isInstanceOf(DataBaseErrorException.class);
+        assertThat(userService.getUserById(user.getId()).getEmail()).isEqualTo("moved-new@example.com");
+    }
+
+    @Test
+    @DisplayName("Sharded profile - Invalid update rejected before its email is claimed")
+    void shardedProfile_InvalidUpdateRejectedBeforeEmailClaimed() {
+        // Arrange
+        UserEntity user = addUsers("unclaimed", 1).get(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.updateUserById(user.getId(), newUser(" ", "unclaimed-new@example.com")))
+                .isInstanceOf(IllegalArgumentException.class);
+        userService.addUser(newUser("Jack", "unclaimed-new@example.com"));
+        assertThat(userService.getUserById(user.getId()).getEmail()).isEqualTo("unclaimed0@example.com");
+    }
+
+    @Test
+    @DisplayName("Sharded profile - Pages merge every shard in id order")
+    void shardedProfile_PagesMergeEveryShardInIdOrder() {
+        // Arrange
+        List<Long> addedIds = addUsers("paged", 25).stream().map(UserEntity::getId).toList();
+
+        // Act
+        List<Long> pagedIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = userService.getUsersPage(cursor, 7);
+            page.getUsers().forEach(user -> pagedIds.add(user.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertThat(pagedIds).isSorted().doesNotHaveDuplicates().containsAll(addedIds);
+        assertThat(userService.getAllUsers()).extracting(UserEntity::getId).isEqualTo(pagedIds);
+        assertThat(userService.getUsersVersion().count()).isEqualTo(pagedIds.size());
+    }
+
+    @Test
+    @DisplayName("Sharded profile - Asynchronously ingested users are persisted on their shard")
+    void shardedProfile_IngestedUsersArePersisted() throws InterruptedException {
+        // Arrange
+        UserEntity user = newUser("Ingrid", "ingested.sharded@example.com");
+
+        // Act
+        String trackingId = userIngestionService.submit(user).getTrackingId();
+        IngestionTicket ticket = userIngestionService.getTicket(trackingId).orElseThrow();
+        for (int attempt = 0; attempt < 100 && ticket.getStatus() == IngestionStatus.PENDING; attempt++) {
+            Thread.sleep(50);
+            ticket = userIngestionService.getTicket(trackingId).orElseThrow();
+        }
+
+        // Assert
+        assertThat(ticket.getStatus()).isEqualTo(IngestionStatus.PERSISTED);
+        assertThat(countRows(userShards.shardForUserId(ticket.getUserId()), ticket.getUserId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Sharded profile - Missing users are reported from their shard")
+    void shardedProfile_MissingUsersAreReported() {
+        // Act & Assert
+        assertThatThrownBy(() -> userService.getUserById(999_999L)).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.getUserByEmail("nobody@example.com")).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.deleteUser(999_999L)).isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Sharded profile - Bulk operations are rejected")
+    void shardedProfile_BulkOperationsAreRejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> userBulkService.addUsers(List.of(newUser("John", "bulk@example.com"))))
+                .isInstanceOf(UnsupportedUserOperationException.class);
+    }
+
+    private List<UserEntity> addUsers(String emailPrefix, int count) {
+        List<UserEntity> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UserEntity user = newUser("First" + i, emailPrefix + i + "@example.com");
+            userService.addUser(user);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private int countRows(int shard, Long userId) {
+        return new JdbcTemplate(userShards.getDataSource(shard))
+                .queryForObject("select count(*) from users where user_id = ?", Integer.class, userId);
+    }
+
+    private static UserEntity newUser(String firstName, String email) {
+        return UserEntity.builder()
+                .firstName(firstName)
+                .lastName("Doe")
+                .email(email)
+                .build();
+    }
+}
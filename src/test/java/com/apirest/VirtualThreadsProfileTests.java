@@ -0,0 +1,46 @@
+package com.apirest;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTests {
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    @DisplayName("Virtual threads profile - Tomcat handles requests on virtual threads")
+    void virtualThreadsProfile_TomcatHandlesRequestsOnVirtualThreads() {
+        // Act
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        Executor requestExecutor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+
+        // Assert
+        assertThat(requestExecutor).isInstanceOf(VirtualThreadExecutor.class);
+    }
+
+    @Test
+    @DisplayName("Virtual threads profile - Async work runs on virtual threads")
+    void virtualThreadsProfile_AsyncWorkRunsOnVirtualThreads() throws Exception {
+        // Act
+        boolean virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get();
+
+        // Assert
+        assertThat(virtual).isTrue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.apirest.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "users.rate-limit.routes=GET /api/users/{userId}=0.1/2,GET /api/users/stream=1/5")
+@AutoConfigureMockMvc
+public class RateLimitConfigTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Get user over route limit - Too many requests for that client only")
+    void getUserOverRouteLimit_TooManyRequestsForThatClientOnly() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/users/{userId}", 999_999L).with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/{userId}", 999_999L).with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isNotFound());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}", 999_999L).with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.title").value("Too Many Requests"));
+        mockMvc.perform(get("/api/users/{userId}", 999_999L).with(remoteAddr("10.0.0.2")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Client header by default - Ignored, limit kept by remote address")
+    void clientHeaderByDefault_IgnoredLimitKeptByRemoteAddress() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/users/{userId}", 999_999L).with(remoteAddr("10.0.0.3")).header("X-Client-Id", "first"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/{userId}", 999_999L).with(remoteAddr("10.0.0.3")).header("X-Client-Id", "second"))
+                .andExpect(status().isNotFound());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}", 999_999L).with(remoteAddr("10.0.0.3")).header("X-Client-Id", "third"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Head stream before any get - Get still limited by its route")
+    void headStreamBeforeAnyGet_GetStillLimitedByItsRoute() throws Exception {
+        // Arrange
+        mockMvc.perform(head("/api/users/stream").with(remoteAddr("10.0.0.4")))
+                .andExpect(status().isOk());
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/users/stream").with(remoteAddr("10.0.0.4")))
+                    .andExpect(status().isOk());
+        }
+
+        // Act
+        int rejected = 0;
+        for (int i = 0; i < 3; i++) {
+            int status = mockMvc.perform(get("/api/users/stream").with(remoteAddr("10.0.0.4")))
+                    .andReturn().getResponse().getStatus();
+            rejected += status == HttpStatus.TOO_MANY_REQUESTS.value() ? 1 : 0;
+        }
+
+        // Assert
+        assertThat(rejected).isPositive();
+    }
+
+    private static RequestPostProcessor remoteAddr(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+}
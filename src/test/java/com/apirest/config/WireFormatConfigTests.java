@@ -0,0 +1,68 @@
+package com.apirest.config;
+
+import com.apirest.models.UserEntity;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class WireFormatConfigTests {
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Create with Smile and get with CBOR - Round trips the user")
+    void createWithSmileAndGetWithCbor_RoundTripsTheUser() throws Exception {
+        // Arrange
+        UserEntity user = UserEntity.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.cbor@example.com")
+                .build();
+
+        mockMvc.perform(post("/api/users/create")
+                        .contentType(APPLICATION_SMILE)
+                        .content(new SmileMapper().writeValueAsBytes(user)))
+                .andExpect(status().isOk());
+
+        // Act
+        byte[] body = mockMvc.perform(get("/api/users/search")
+                        .param("email", "john.cbor@example.com")
+                        .accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        UserEntity foundUser = new CBORMapper().readValue(body, UserEntity.class);
+        assertThat(foundUser.getId()).isNotNull();
+        assertThat(foundUser.getFirstName()).isEqualTo("John");
+        assertThat(foundUser.getEmail()).isEqualTo("john.cbor@example.com");
+    }
+
+    @Test
+    @DisplayName("Get users accepting any type - Responds with JSON")
+    void getUsersAcceptingAnyType_RespondsWithJson() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$").isArray());
+    }
+}
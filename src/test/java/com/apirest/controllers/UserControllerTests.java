@@ -1,30 +1,71 @@
 package com.apirest.controllers;
 
+import com.apirest.exceptions.IngestionQueueFullException;
+import com.apirest.exceptions.UnsupportedUserOperationException;
+import com.apirest.exceptions.UserNotFoundException;
+import com.apirest.exceptions.UserVersionMismatchException;
+import com.apirest.models.BulkChangeRequest;
+import com.apirest.models.BulkChangeResult;
+import com.apirest.models.BulkCreateResult;
+import com.apirest.models.BulkRowResult;
+import com.apirest.models.BulkRowStatus;
+import com.apirest.models.IngestionStatus;
+import com.apirest.models.IngestionTicket;
+import com.apirest.models.UserCollectionVersion;
 import com.apirest.models.UserEntity;
+import com.apirest.models.UserFilter;
+import com.apirest.models.UserImportResult;
+import com.apirest.models.UserPage;
+import com.apirest.models.UserSummary;
+import com.apirest.models.UserViewPage;
+import com.apirest.servicies.UserBulkService;
+import com.apirest.servicies.UserChangeService;
+import com.apirest.servicies.UserIngestionService;
 import com.apirest.servicies.UserService;
+import com.apirest.watch.UserWatchHub;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import(SimpleMeterRegistry.class)
 public class UserControllerTests {
     @Autowired
     private MockMvc mockMvc;
@@ -32,6 +73,18 @@ public class UserControllerTests {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserBulkService userBulkService;
+
+    @MockBean
+    private UserIngestionService userIngestionService;
+
+    @MockBean
+    private UserChangeService userChangeService;
+
+    @MockBean
+    private UserWatchHub userWatchHub;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -51,6 +104,194 @@ public class UserControllerTests {
         verify(userService, times(1)).addUser(user);
     }
 
+    @Test
+    @DisplayName("Create user with async ingestion - Accepted")
+    public void createUserWithAsyncIngestion_Accepted() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+        IngestionTicket ingestionTicket = new IngestionTicket("tracking-1", IngestionStatus.PENDING, null, null);
+
+        when(userIngestionService.isEnabled()).thenReturn(true);
+        when(userIngestionService.submit(user)).thenReturn(ingestionTicket);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(user)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/users/ingestion/tracking-1"))
+                .andExpect(jsonPath("$.trackingId").value("tracking-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        verify(userService, never()).addUser(any());
+    }
+
+    @Test
+    @DisplayName("Create user with full ingestion queue - Service unavailable")
+    public void createUserWithFullIngestionQueue_ServiceUnavailable() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+
+        when(userIngestionService.isEnabled()).thenReturn(true);
+        when(userIngestionService.submit(user))
+                .thenThrow(new IngestionQueueFullException("Ingestion queue is full, please retry later"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(user)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.detail").value("Ingestion queue is full, please retry later"));
+    }
+
+    @Test
+    @DisplayName("Get ingestion ticket - Successful")
+    public void getIngestionTicket_Successful() throws Exception {
+        // Arrange
+        IngestionTicket ingestionTicket = new IngestionTicket("tracking-1", IngestionStatus.PERSISTED, 7L, null);
+
+        when(userIngestionService.getTicket("tracking-1")).thenReturn(Optional.of(ingestionTicket));
+        when(userIngestionService.getTicket("unknown")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/ingestion/{trackingId}", "tracking-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PERSISTED"))
+                .andExpect(jsonPath("$.userId").value(7));
+
+        mockMvc.perform(get("/api/users/ingestion/{trackingId}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Create users in bulk - Reports result per row")
+    public void createUsersInBulk_ReportsResultPerRow() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+        UserEntity duplicatedUser = createUser();
+        BulkCreateResult bulkCreateResult = new BulkCreateResult(1, 1, List.of(
+                new BulkRowResult(0, BulkRowStatus.CREATED, user.getId(), null),
+                new BulkRowResult(1, BulkRowStatus.CONFLICT, null, "Duplicate email in request: " + user.getEmail())));
+
+        when(userBulkService.addUsers(List.of(user, duplicatedUser))).thenReturn(bulkCreateResult);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(List.of(user, duplicatedUser))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.rows[0].userId").value(user.getId()))
+                .andExpect(jsonPath("$.rows[1].status").value("CONFLICT"));
+
+        verify(userBulkService, times(1)).addUsers(List.of(user, duplicatedUser));
+    }
+
+    @Test
+    @DisplayName("Delete users in bulk by ids - Reports affected count and missing IDs")
+    public void deleteUsersInBulkByIds_ReportsAffectedCountAndMissingIds() throws Exception {
+        // Arrange
+        BulkChangeRequest bulkChangeRequest = BulkChangeRequest.builder().ids(List.of(1L, 2L)).build();
+
+        when(userBulkService.deleteUsers(List.of(1L, 2L), false)).thenReturn(new BulkChangeResult(2, 1, List.of(2L)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(bulkChangeRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(2))
+                .andExpect(jsonPath("$.affected").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(2));
+    }
+
+    @Test
+    @DisplayName("Update users in bulk by filter - Reports affected count")
+    public void updateUsersInBulkByFilter_ReportsAffectedCount() throws Exception {
+        // Arrange
+        UserFilter filter = UserFilter.builder().lastNamePrefix("Do").build();
+        UserEntity changes = UserEntity.builder().firstName("Jane").build();
+        BulkChangeRequest bulkChangeRequest = BulkChangeRequest.builder().filter(filter).changes(changes).build();
+
+        when(userBulkService.updateUsersMatching(filter, changes)).thenReturn(new BulkChangeResult(3, 3, List.of()));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(bulkChangeRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(3));
+
+        verify(userBulkService, never()).updateUsers(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Delete users in bulk all or nothing with missing ID - Not found")
+    public void deleteUsersInBulkAllOrNothingWithMissingId_NotFound() throws Exception {
+        // Arrange
+        BulkChangeRequest bulkChangeRequest = BulkChangeRequest.builder().ids(List.of(1L, 2L)).allOrNothing(true).build();
+
+        when(userBulkService.deleteUsers(List.of(1L, 2L), true))
+                .thenThrow(new UserNotFoundException("Users with IDs: [2] not found."));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(bulkChangeRequest)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Users with IDs: [2] not found."));
+    }
+
+    @Test
+    @DisplayName("Delete users in bulk while sharded - Not implemented")
+    public void deleteUsersInBulkWhileSharded_NotImplemented() throws Exception {
+        // Arrange
+        BulkChangeRequest bulkChangeRequest = BulkChangeRequest.builder().ids(List.of(1L, 2L)).build();
+
+        when(userBulkService.deleteUsers(List.of(1L, 2L), false))
+                .thenThrow(new UnsupportedUserOperationException("Bulk operations are not supported when users are sharded"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(bulkChangeRequest)))
+                .andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.detail").value("Bulk operations are not supported when users are sharded"));
+    }
+
+    @Test
+    @DisplayName("Get all users with unexpected unsupported operation - Internal server error")
+    public void getAllUsersWithUnexpectedUnsupportedOperation_InternalServerError() throws Exception {
+        // Arrange
+        when(userService.getUsersVersion()).thenReturn(new UserCollectionVersion(1, 1, 0));
+        when(userService.getAllUsers()).thenThrow(new UnsupportedOperationException());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    @DisplayName("Delete users in bulk with ids and filter - Bad request")
+    public void deleteUsersInBulkWithIdsAndFilter_BadRequest() throws Exception {
+        // Arrange
+        BulkChangeRequest bulkChangeRequest = BulkChangeRequest.builder()
+                .ids(List.of(1L))
+                .filter(UserFilter.builder().firstName("John").build())
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(bulkChangeRequest)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userBulkService);
+    }
+
     @Test
     @DisplayName("Get user - Successful")
     public void getUser_Successful() throws Exception {
@@ -72,6 +313,62 @@ public class UserControllerTests {
         verify(userService, times(1)).getUserById(userId);
     }
 
+    @Test
+    @DisplayName("Get user with matching ETag - Not modified")
+    public void getUserWithMatchingETag_NotModified() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+        user.setVersion(3L);
+
+        when(userService.getUserById(user.getId())).thenReturn(user);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+
+        mockMvc.perform(get("/api/users/{userId}", user.getId())
+                        .header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Get user with non existent id - Problem detail")
+    public void getUserWithNonExistentId_ProblemDetail() throws Exception {
+        // Arrange
+        Long userId = 999L;
+
+        when(userService.getUserById(userId)).thenThrow(new UserNotFoundException(userId));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}", userId))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.detail").value("User with ID: 999 not found."))
+                .andExpect(jsonPath("$.instance").value("/api/users/999"));
+    }
+
+    @Test
+    @DisplayName("Get user with exhausted connection pool - Service unavailable")
+    public void getUserWithExhaustedConnectionPool_ServiceUnavailable() throws Exception {
+        // Arrange
+        Long userId = 1L;
+
+        when(userService.getUserById(userId))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}", userId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.detail").value("No database connection available, please retry later"));
+    }
+
     @Test
     @DisplayName("Get all users - Successful")
     public void getAllUsers_Successful() throws Exception {
@@ -89,6 +386,7 @@ public class UserControllerTests {
         userList.add(user1);
         userList.add(user2);
 
+        when(userService.getUsersVersion()).thenReturn(new UserCollectionVersion(2, 2, 0));
         when(userService.getAllUsers()).thenReturn(userList);
 
         // Act & Assert
@@ -109,6 +407,325 @@ public class UserControllerTests {
         verify(userService, times(1)).getAllUsers();
     }
 
+    @Test
+    @DisplayName("Get all users listed before a newer version - ETag matches the listed users")
+    public void getAllUsersListedBeforeNewerVersion_ETagMatchesListedUsers() throws Exception {
+        // Arrange
+        UserEntity user = UserEntity.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .version(2L)
+                .build();
+
+        when(userService.getUsersVersion()).thenReturn(new UserCollectionVersion(2, 2, 3));
+        when(userService.getAllUsers()).thenReturn(List.of(user));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1-1-2\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Get all users with matching ETag - Not modified without loading users")
+    public void getAllUsersWithMatchingETag_NotModifiedWithoutLoadingUsers() throws Exception {
+        // Arrange
+        when(userService.getUsersVersion()).thenReturn(new UserCollectionVersion(2, 2, 3));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users")
+                        .header("If-None-Match", "\"2-2-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"2-2-3\""))
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getAllUsers();
+    }
+
+    @Test
+    @DisplayName("Get user summary - Successful")
+    public void getUserSummary_Successful() throws Exception {
+        // Arrange
+        UserSummary summary = new UserSummary(1L, "John", "Doe", "john.doe@example.com");
+
+        when(userService.getUserSummaryById(1L)).thenReturn(summary);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}/summary", 1L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.email").value("john.doe@example.com"));
+    }
+
+    @Test
+    @DisplayName("Get user selected fields - Successful")
+    public void getUserSelectedFields_Successful() throws Exception {
+        // Arrange
+        when(userService.getUserFieldsById(1L, Set.of("id", "email")))
+                .thenReturn(Map.of("id", 1L, "email", "john.doe@example.com"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/{userId}/summary", 1L)
+                        .param("fields", "id,email")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.email").value("john.doe@example.com"))
+                .andExpect(jsonPath("$.firstName").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Get user summaries page with selected fields - Successful")
+    public void getUserSummariesPageWithSelectedFields_Successful() throws Exception {
+        // Arrange
+        UserViewPage<Map<String, Object>> fieldsPage = new UserViewPage<>(List.of(Map.of("email", "john.doe@example.com")), null);
+
+        when(userService.getUserFieldsPage(null, UserService.DEFAULT_PAGE_SIZE, Set.of("email"))).thenReturn(fieldsPage);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/summaries")
+                        .param("fields", "email")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].email").value("john.doe@example.com"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Search user by email - Successful")
+    public void searchUserByEmail_Successful() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+
+        when(userService.getUserByEmail(user.getEmail())).thenReturn(user);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/search")
+                        .param("email", user.getEmail())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.getId()))
+                .andExpect(jsonPath("$.email").value(user.getEmail()));
+
+        verify(userService, times(1)).getUserByEmail(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("Search users by last name prefix - Successful")
+    public void searchUsersByLastNamePrefix_Successful() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+
+        when(userService.searchUsersByLastNamePrefix("Do", 10)).thenReturn(List.of(user));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/search")
+                        .param("lastNamePrefix", "Do")
+                        .param("limit", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].lastName").value(user.getLastName()));
+
+        verify(userService, times(1)).searchUsersByLastNamePrefix("Do", 10);
+    }
+
+    @Test
+    @DisplayName("Search users by name - Successful")
+    public void searchUsersByName_Successful() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+
+        when(userService.searchUsersByName("John", "Doe", UserService.DEFAULT_PAGE_SIZE)).thenReturn(List.of(user));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/search")
+                        .param("firstName", "John")
+                        .param("lastName", "Doe")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].firstName").value(user.getFirstName()));
+
+        verify(userService, times(1)).searchUsersByName("John", "Doe", UserService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    @DisplayName("Get users page - Successful")
+    public void getUsersPage_Successful() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+        UserPage usersPage = new UserPage(List.of(user), "next-cursor");
+
+        when(userService.getUsersPage(isNull(), eq(1))).thenReturn(usersPage);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/page")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].id").value(user.getId()))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+
+        verify(userService, times(1)).getUsersPage(null, 1);
+    }
+
+    @Test
+    @DisplayName("Get users page with invalid page size - Bad request")
+    public void getUsersPageWithInvalidPageSize_BadRequest() throws Exception {
+        // Arrange
+        when(userService.getUsersPage(isNull(), eq(0)))
+                .thenThrow(new IllegalArgumentException("Invalid page size: 0"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/page")
+                        .param("limit", "0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid page size: 0"));
+    }
+
+    @Test
+    @DisplayName("Stream all users as NDJSON - Successful")
+    public void streamAllUsersAsNdjson_Successful() throws Exception {
+        // Arrange
+        UserEntity user1 = createUser();
+        UserEntity user2 = UserEntity.builder()
+                .id(2L)
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .build();
+
+        doAnswer(invocation -> {
+            Consumer<UserEntity> userConsumer = invocation.getArgument(0);
+            userConsumer.accept(user1);
+            userConsumer.accept(user2);
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/api/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.APPLICATION_NDJSON))
+                .andExpect(content().string(asJsonString(user1) + "\n" + asJsonString(user2)));
+    }
+
+    @Test
+    @DisplayName("Stream all users as JSON array - Successful")
+    public void streamAllUsersAsJsonArray_Successful() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+
+        doAnswer(invocation -> {
+            Consumer<UserEntity> userConsumer = invocation.getArgument(0);
+            userConsumer.accept(user);
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/api/users/stream")
+                        .param("format", "json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value(user.getEmail()));
+    }
+
+    @Test
+    @DisplayName("Stream all users as gzipped CSV - Successful")
+    public void streamAllUsersAsGzippedCsv_Successful() throws Exception {
+        // Arrange
+        UserEntity user = createUser();
+
+        doAnswer(invocation -> {
+            Consumer<UserEntity> userConsumer = invocation.getArgument(0);
+            userConsumer.accept(user);
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/api/users/stream")
+                        .param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.TEXT_CSV))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream csv = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(csv.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(
+                    "id,firstName,lastName,email,version\n"
+                            + user.getId() + "," + user.getFirstName() + "," + user.getLastName() + "," + user.getEmail() + ",\n");
+        }
+    }
+
+    @Test
+    @DisplayName("Import users from gzipped CSV - Reports imported and rejected rows")
+    public void importUsersFromGzippedCsv_ReportsImportedAndRejectedRows() throws Exception {
+        // Arrange
+        ByteArrayOutputStream gzippedCsv = new ByteArrayOutputStream();
+        try (GZIPOutputStream csv = new GZIPOutputStream(gzippedCsv)) {
+            csv.write(("email,firstName,lastName\n"
+                    + "john.doe@example.com,John,Doe\n"
+                    + "jane.smith@example.com,Jane,Smith\n").getBytes(StandardCharsets.UTF_8));
+        }
+        List<UserEntity> importedUsers = new ArrayList<>();
+
+        when(userBulkService.importUsers(any())).thenAnswer(invocation -> {
+            Iterator<UserEntity> users = invocation.getArgument(0);
+            users.forEachRemaining(importedUsers::add);
+            return new UserImportResult(2, 0, List.of());
+        });
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/import")
+                        .param("format", "csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .contentType(UserController.TEXT_CSV)
+                        .content(gzippedCsv.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        assertThat(importedUsers)
+                .extracting(UserEntity::getEmail, UserEntity::getLastName)
+                .containsExactly(tuple("john.doe@example.com", "Doe"), tuple("jane.smith@example.com", "Smith"));
+    }
+
+    @Test
+    @DisplayName("Import users with unsupported format - Bad request")
+    public void importUsersWithUnsupportedFormat_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/import")
+                        .param("format", "xml")
+                        .content("<users/>"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Unsupported import format: xml"));
+
+        verifyNoInteractions(userBulkService);
+    }
+
     @Test
     @DisplayName("Update user - Successful")
     public void updateUser_Successful() throws Exception {
@@ -126,6 +743,61 @@ public class UserControllerTests {
         verify(userService, times(1)).updateUserById(userId, updatedUser);
     }
 
+    @Test
+    @DisplayName("Update user with If-Match - Updates expected version")
+    public void updateUserWithIfMatch_UpdatesExpectedVersion() throws Exception {
+        // Arrange
+        UserEntity updatedUser = createUser();
+        Long userId = updatedUser.getId();
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/{userId}", userId)
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(updatedUser)))
+                .andExpect(status().isOk());
+
+        verify(userService, times(1)).updateUserById(userId, updatedUser, 4L);
+    }
+
+    @Test
+    @DisplayName("Update user with stale If-Match - Precondition failed")
+    public void updateUserWithStaleIfMatch_PreconditionFailed() throws Exception {
+        // Arrange
+        UserEntity updatedUser = createUser();
+        Long userId = updatedUser.getId();
+
+        doThrow(new UserVersionMismatchException("User with ID: 1 is no longer at version 4."))
+                .when(userService).updateUserById(userId, updatedUser, 4L);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/{userId}", userId)
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(updatedUser)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.detail").value("User with ID: 1 is no longer at version 4."));
+    }
+
+    @Test
+    @DisplayName("Patch user - Successful")
+    public void patchUser_Successful() throws Exception {
+        // Arrange
+        Long userId = 1L;
+        UserEntity changes = UserEntity.builder()
+                .email("john.new@example.com")
+                .build();
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/{userId}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(changes)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("User updated successfully"));
+
+        verify(userService, times(1)).patchUserById(userId, changes);
+    }
+
     @Test
     @DisplayName("Delete user - Successful")
     public void deleteUser_Successful() throws Exception {
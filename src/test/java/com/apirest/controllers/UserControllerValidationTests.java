@@ -0,0 +1,87 @@
+package com.apirest.controllers;
+
+import com.apirest.models.UserEntity;
+import com.apirest.servicies.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs against the real service: the update statements bypass the validation done at flush, so
+// this checks the service still rejects what the entity constraints forbid.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserControllerValidationTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Update user with blank name - Bad request and user unchanged")
+    void updateUserWithBlankName_BadRequestAndUserUnchanged() throws Exception {
+        // Arrange
+        UserEntity user = addUser("blank.put@example.com");
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/{userId}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\" \",\"lastName\":\"Doe\",\"email\":\"blank.put@example.com\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("First name must not be blank"));
+        assertThat(userService.getUserById(user.getId()).getFirstName()).isEqualTo("John");
+    }
+
+    @Test
+    @DisplayName("Update user with invalid email - Bad request and user unchanged")
+    void updateUserWithInvalidEmail_BadRequestAndUserUnchanged() throws Exception {
+        // Arrange
+        UserEntity user = addUser("email.put@example.com");
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/{userId}", user.getId())
+                        .header("If-Match", "\"" + user.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid email format"));
+        assertThat(userService.getUserById(user.getId()).getEmail()).isEqualTo("email.put@example.com");
+    }
+
+    @Test
+    @DisplayName("Update user with missing field - Bad request")
+    void updateUserWithMissingField_BadRequest() throws Exception {
+        // Arrange
+        UserEntity user = addUser("missing.put@example.com");
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/{userId}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(UserEntity.builder().firstName("John").lastName("Doe").build())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Email must not be blank"));
+    }
+
+    private UserEntity addUser(String email) {
+        UserEntity user = UserEntity.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email(email)
+                .build();
+        userService.addUser(user);
+        return user;
+    }
+}
@@ -0,0 +1,32 @@
+package com.apirest.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoint.health.show-details=always")
+@AutoConfigureMockMvc
+public class ConnectionPoolHealthIndicatorTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Health endpoint - Exposes connection pool state")
+    void healthEndpoint_ExposesConnectionPoolState() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health/connectionPool"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.details.pool").value("users-pool"))
+                .andExpect(jsonPath("$.details.maximumPoolSize").value(10))
+                .andExpect(jsonPath("$.details.threadsAwaitingConnection").value(0))
+                .andExpect(jsonPath("$.details.saturated").value(false));
+    }
+}
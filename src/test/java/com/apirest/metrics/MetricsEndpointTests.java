@@ -0,0 +1,55 @@
+package com.apirest.metrics;
+
+import com.apirest.models.UserEntity;
+import com.apirest.servicies.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    @DisplayName("Scrape endpoint - Exposes service, request, pool and error metrics")
+    void scrapeEndpoint_ExposesServiceRequestPoolAndErrorMetrics() throws Exception {
+        // Arrange
+        userService.addUser(UserEntity.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.metrics@example.com")
+                .build());
+
+        mockMvc.perform(get("/api/users")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/{userId}", 999_999L)).andExpect(status().isNotFound());
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "users_service_seconds_count{class=\"com.apirest.servicies.UserService\",exception=\"none\",method=\"addUser\"")))
+                .andExpect(content().string(containsString(
+                        "users_service_seconds_bucket{class=\"com.apirest.servicies.UserService\",exception=\"none\",method=\"getAllUsers\"")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("users_request_sql_statements_count{method=\"GET\",uri=\"/api/users\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"users\"")))
+                .andExpect(content().string(containsString(
+                        "users_errors_total{exception=\"UserNotFoundException\",handler=\"handlerUserNotFoundException\"")));
+    }
+}
@@ -77,7 +77,7 @@ class UserEntityTest {
         user.setEmail(email);
 
         // Act
-        UserEntity equalUser = new UserEntity(userId, firstName, lastName, email);
+        UserEntity equalUser = new UserEntity(userId, firstName, lastName, email, null);
 
         // Assert
         assertThat(user).isEqualTo(equalUser);
@@ -0,0 +1,54 @@
+package com.apirest.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GcraRateLimiterTests {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Try acquire within burst - Admits then rejects with wait")
+    void tryAcquireWithinBurst_AdmitsThenRejectsWithWait() {
+        // Arrange
+        GcraRateLimiter rateLimiter = new GcraRateLimiter(10, 3, 100, Duration.ofMinutes(1));
+        long now = 1_000 * SECOND;
+
+        // Act & Assert
+        assertThat(rateLimiter.tryAcquire("client", now)).isZero();
+        assertThat(rateLimiter.tryAcquire("client", now)).isZero();
+        assertThat(rateLimiter.tryAcquire("client", now)).isZero();
+        assertThat(rateLimiter.tryAcquire("client", now)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    @DisplayName("Try acquire after emission interval - Admits one more request")
+    void tryAcquireAfterEmissionInterval_AdmitsOneMoreRequest() {
+        // Arrange
+        GcraRateLimiter rateLimiter = new GcraRateLimiter(10, 1, 100, Duration.ofMinutes(1));
+        long now = 1_000 * SECOND;
+        rateLimiter.tryAcquire("client", now);
+
+        // Act & Assert
+        assertThat(rateLimiter.tryAcquire("client", now + SECOND / 20)).isEqualTo(SECOND / 20);
+        assertThat(rateLimiter.tryAcquire("client", now + SECOND / 10)).isZero();
+        assertThat(rateLimiter.tryAcquire("client", now + SECOND / 10)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Try acquire for different clients - Keeps separate budgets")
+    void tryAcquireForDifferentClients_KeepsSeparateBudgets() {
+        // Arrange
+        GcraRateLimiter rateLimiter = new GcraRateLimiter(1, 1, 100, Duration.ofMinutes(1));
+        long now = 1_000 * SECOND;
+
+        // Act & Assert
+        assertThat(rateLimiter.tryAcquire("client-a", now)).isZero();
+        assertThat(rateLimiter.tryAcquire("client-a", now)).isPositive();
+        assertThat(rateLimiter.tryAcquire("client-b", now)).isZero();
+    }
+}
@@ -0,0 +1,46 @@
+package com.apirest.replication;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReplicaSynchronizerTests {
+    private static final String USERS_TABLE = "create table users (user_id bigint primary key, first_name varchar(%d), "
+            + "last_name varchar(50), email varchar(100) unique, version bigint)";
+
+    @Test
+    @DisplayName("Full copy fails - Replica keeps its previous users")
+    void fullCopyFails_ReplicaKeepsItsPreviousUsers() {
+        // Arrange
+        JdbcTemplate primary = new JdbcTemplate(dataSource("primary"));
+        JdbcTemplate replica = new JdbcTemplate(dataSource("replica"));
+        primary.execute(USERS_TABLE.formatted(100));
+        // A narrower column on the replica makes both the incremental pass and its full copy fail.
+        replica.execute(USERS_TABLE.formatted(10));
+        primary.update("insert into users values (1, 'Ada', 'Lovelace', 'ada@example.com', 0)");
+        primary.update("insert into users values (2, 'Grace', 'Hopper', 'grace@example.com', 0)");
+        ReplicaSynchronizer replicaSynchronizer = new ReplicaSynchronizer(primary.getDataSource(),
+                List.of(replica.getDataSource()), Duration.ofHours(1));
+        replicaSynchronizer.synchronizeAll();
+        primary.update("update users set first_name = 'Augusta Ada King', version = 1 where user_id = 1");
+
+        // Act & Assert
+        assertThatThrownBy(replicaSynchronizer::synchronizeAll).isInstanceOf(DataAccessException.class);
+        assertThat(replica.queryForList("select first_name from users order by user_id", String.class))
+                .containsExactly("Ada", "Grace");
+    }
+
+    private static JdbcDataSource dataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:replica-synchronizer-" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
@@ -1,15 +1,22 @@
 package com.apirest.repositories;
 
+import com.apirest.models.UserCollectionVersion;
 import com.apirest.models.UserEntity;
+import com.apirest.models.UserFilter;
+import com.apirest.models.UserSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -85,6 +92,319 @@ public class UserRepositoryTests {
         assertThat(foundUsers).contains(user1, user2);
     }
 
+    @Test
+    @DisplayName("Find users after id - Returns next keyset page")
+    void findUsersAfterId_ReturnsNextKeysetPage() {
+        // Arrange
+        UserEntity user1 = userRepository.save(createUser());
+        UserEntity user2 = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .build());
+        UserEntity user3 = userRepository.save(UserEntity.builder()
+                .firstName("Jim")
+                .lastName("Beam")
+                .email("jim.beam@example.com")
+                .build());
+
+        // Act
+        List<UserEntity> foundUsers = userRepository.findByIdGreaterThanOrderByIdAsc(user1.getId(), Limit.of(1));
+
+        // Assert
+        assertThat(foundUsers).containsExactly(user2);
+        assertThat(foundUsers).doesNotContain(user3);
+    }
+
+    @Test
+    @DisplayName("Stream all users - Ordered by id")
+    void streamAllUsers_OrderedById() {
+        // Arrange
+        UserEntity user1 = userRepository.save(createUser());
+        UserEntity user2 = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .build());
+
+        // Act
+        List<UserEntity> streamedUsers;
+        try (Stream<UserEntity> users = userRepository.streamAllOrderedById()) {
+            streamedUsers = users.toList();
+        }
+
+        // Assert
+        assertThat(streamedUsers).containsExactly(user1, user2);
+    }
+
+    @Test
+    @DisplayName("Find existing emails - Returns only persisted emails")
+    void findExistingEmails_ReturnsOnlyPersistedEmails() {
+        // Arrange
+        UserEntity user = userRepository.save(createUser());
+
+        // Act
+        Set<String> existingEmails = userRepository.findExistingEmails(List.of(user.getEmail(), "jane.smith@example.com"));
+
+        // Assert
+        assertThat(existingEmails).containsExactly(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("Update user by id - Single statement update")
+    void updateUserById_SingleStatementUpdate() {
+        // Arrange
+        UserEntity savedUser = userRepository.save(createUser());
+
+        // Act
+        int updatedRows = userRepository.updateUserById(savedUser.getId(), "Johnny", "Doe", "johnny.doe@example.com");
+
+        // Assert
+        assertThat(updatedRows).isEqualTo(1);
+        UserEntity updatedUser = userRepository.findById(savedUser.getId()).orElseThrow();
+        assertThat(updatedUser.getFirstName()).isEqualTo("Johnny");
+        assertThat(updatedUser.getEmail()).isEqualTo("johnny.doe@example.com");
+    }
+
+    @Test
+    @DisplayName("Update user by id and version - Increments version only when it matches")
+    void updateUserByIdAndVersion_IncrementsVersionOnlyWhenItMatches() {
+        // Arrange
+        UserEntity savedUser = userRepository.save(createUser());
+        Long initialVersion = savedUser.getVersion();
+
+        // Act
+        int updatedRows = userRepository.updateUserByIdAndVersion(savedUser.getId(), initialVersion, "Johnny", "Doe", "johnny.doe@example.com");
+        int staleRows = userRepository.updateUserByIdAndVersion(savedUser.getId(), initialVersion, "Jack", "Doe", "jack.doe@example.com");
+
+        // Assert
+        assertThat(updatedRows).isEqualTo(1);
+        assertThat(staleRows).isZero();
+        UserEntity updatedUser = userRepository.findById(savedUser.getId()).orElseThrow();
+        assertThat(updatedUser.getFirstName()).isEqualTo("Johnny");
+        assertThat(updatedUser.getVersion()).isEqualTo(initialVersion + 1);
+    }
+
+    @Test
+    @DisplayName("Find collection version - Changes after update")
+    void findCollectionVersion_ChangesAfterUpdate() {
+        // Arrange
+        UserEntity savedUser = userRepository.save(createUser());
+        UserCollectionVersion versionBeforeUpdate = userRepository.findCollectionVersion();
+
+        // Act
+        userRepository.patchUserById(savedUser.getId(), UserEntity.builder().firstName("Johnny").build());
+        UserCollectionVersion versionAfterUpdate = userRepository.findCollectionVersion();
+
+        // Assert
+        assertThat(versionBeforeUpdate.count()).isEqualTo(1);
+        assertThat(versionBeforeUpdate.maxId()).isEqualTo(savedUser.getId());
+        assertThat(versionAfterUpdate).isNotEqualTo(versionBeforeUpdate);
+    }
+
+    @Test
+    @DisplayName("Update user by id - Not found")
+    void updateUserById_NotFound() {
+        // Act
+        int updatedRows = userRepository.updateUserById(999L, "Johnny", "Doe", "johnny.doe@example.com");
+
+        // Assert
+        assertThat(updatedRows).isZero();
+    }
+
+    @Test
+    @DisplayName("Patch user by id - Only changed columns are written")
+    void patchUserById_OnlyChangedColumnsAreWritten() {
+        // Arrange
+        UserEntity savedUser = userRepository.save(createUser());
+        UserEntity changes = UserEntity.builder()
+                .lastName("Smith")
+                .build();
+
+        // Act
+        int updatedRows = userRepository.patchUserById(savedUser.getId(), changes);
+
+        // Assert
+        assertThat(updatedRows).isEqualTo(1);
+        UserEntity patchedUser = userRepository.findById(savedUser.getId()).orElseThrow();
+        assertThat(patchedUser.getFirstName()).isEqualTo("John");
+        assertThat(patchedUser.getLastName()).isEqualTo("Smith");
+        assertThat(patchedUser.getEmail()).isEqualTo("john.doe@example.com");
+    }
+
+    @Test
+    @DisplayName("Delete user by id - Single statement delete")
+    void deleteUserById_SingleStatementDelete() {
+        // Arrange
+        UserEntity savedUser = userRepository.save(createUser());
+
+        // Act
+        int deletedRows = userRepository.deleteUserById(savedUser.getId());
+
+        // Assert
+        assertThat(deletedRows).isEqualTo(1);
+        assertThat(userRepository.findById(savedUser.getId())).isEmpty();
+        assertThat(userRepository.deleteUserById(savedUser.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Find user by email - Successful")
+    void findUserByEmail_Successful() {
+        // Arrange
+        UserEntity savedUser = userRepository.save(createUser());
+
+        // Act
+        Optional<UserEntity> foundUserOptional = userRepository.findByEmail("john.doe@example.com");
+
+        // Assert
+        assertThat(foundUserOptional).contains(savedUser);
+    }
+
+    @Test
+    @DisplayName("Find users by last name prefix - Ordered by last and first name")
+    void findUsersByLastNamePrefix_OrderedByLastAndFirstName() {
+        // Arrange
+        UserEntity user1 = userRepository.save(createUser());
+        UserEntity user2 = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Doherty")
+                .email("jane.doherty@example.com")
+                .build());
+        userRepository.save(UserEntity.builder()
+                .firstName("Jim")
+                .lastName("Beam")
+                .email("jim.beam@example.com")
+                .build());
+
+        // Act
+        List<UserEntity> foundUsers = userRepository.findByLastNameStartingWithOrderByLastNameAscFirstNameAscIdAsc("Do", Limit.of(10));
+
+        // Assert
+        assertThat(foundUsers).containsExactly(user1, user2);
+    }
+
+    @Test
+    @DisplayName("Find users by first and last name - Successful")
+    void findUsersByFirstAndLastName_Successful() {
+        // Arrange
+        UserEntity user = userRepository.save(createUser());
+        userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .email("jane.doe@example.com")
+                .build());
+
+        // Act
+        List<UserEntity> foundUsers = userRepository.findByFirstNameAndLastNameOrderByIdAsc("John", "Doe", Limit.of(10));
+
+        // Assert
+        assertThat(foundUsers).containsExactly(user);
+    }
+
+    @Test
+    @DisplayName("Find user summary by id - Returns record projection")
+    void findUserSummaryById_ReturnsRecordProjection() {
+        // Arrange
+        UserEntity savedUser = userRepository.save(createUser());
+
+        // Act
+        Optional<UserSummary> summaryOptional = userRepository.findSummaryById(savedUser.getId());
+
+        // Assert
+        assertThat(summaryOptional).contains(
+                new UserSummary(savedUser.getId(), "John", "Doe", "john.doe@example.com"));
+    }
+
+    @Test
+    @DisplayName("Find user fields by id - Returns only selected columns")
+    void findUserFieldsById_ReturnsOnlySelectedColumns() {
+        // Arrange
+        UserEntity savedUser = userRepository.save(createUser());
+
+        // Act
+        Optional<Map<String, Object>> fieldsOptional = userRepository.findFieldsById(savedUser.getId(), Set.of("email"));
+
+        // Assert
+        assertThat(fieldsOptional).isPresent();
+        assertThat(fieldsOptional.get())
+                .containsOnlyKeys("id", "email")
+                .containsEntry("email", "john.doe@example.com");
+    }
+
+    @Test
+    @DisplayName("Find user fields after id - Returns next keyset page")
+    void findUserFieldsAfterId_ReturnsNextKeysetPage() {
+        // Arrange
+        UserEntity user1 = userRepository.save(createUser());
+        UserEntity user2 = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .build());
+
+        // Act
+        List<Map<String, Object>> rows = userRepository.findFieldsByIdGreaterThan(user1.getId(), Set.of("firstName"), 10);
+
+        // Assert
+        assertThat(rows).containsExactly(Map.of("id", user2.getId(), "firstName", "Jane"));
+    }
+
+    @Test
+    @DisplayName("Update and delete users by id list - Returns affected counts")
+    void updateAndDeleteUsersByIdList_ReturnsAffectedCounts() {
+        // Arrange
+        UserEntity user1 = userRepository.save(createUser());
+        UserEntity user2 = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .build());
+        Long missingId = user2.getId() + 1000;
+
+        // Act
+        Set<Long> existingIds = userRepository.findExistingIds(List.of(user1.getId(), user2.getId(), missingId));
+        int updated = userRepository.updateUserNamesByIdIn(List.of(user1.getId(), user2.getId()), null, "Brown");
+        UserEntity updatedUser = userRepository.findById(user2.getId()).orElseThrow();
+        int deleted = userRepository.deleteUsersByIdIn(List.of(user1.getId(), missingId));
+
+        // Assert
+        assertThat(existingIds).containsExactlyInAnyOrder(user1.getId(), user2.getId());
+        assertThat(updated).isEqualTo(2);
+        assertThat(updatedUser.getFirstName()).isEqualTo("Jane");
+        assertThat(updatedUser.getLastName()).isEqualTo("Brown");
+        assertThat(updatedUser.getVersion()).isEqualTo(1L);
+        assertThat(deleted).isEqualTo(1);
+        assertThat(userRepository.findById(user1.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Find ids matching filter - Returns next keyset chunk")
+    void findIdsMatchingFilter_ReturnsNextKeysetChunk() {
+        // Arrange
+        UserEntity user1 = userRepository.save(createUser());
+        UserEntity user2 = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Dorsey")
+                .email("jane.dorsey@example.com")
+                .build());
+        UserEntity user3 = userRepository.save(UserEntity.builder()
+                .firstName("Jim")
+                .lastName("Do_e")
+                .email("jim.doe@example.org")
+                .build());
+        UserFilter filter = UserFilter.builder().lastNamePrefix("Do").emailDomain("example.com").build();
+
+        // Act
+        List<Long> firstChunk = userRepository.findIdsMatching(filter, 0L, 1);
+        List<Long> secondChunk = userRepository.findIdsMatching(filter, firstChunk.get(0), 10);
+        List<Long> escapedMatch = userRepository.findIdsMatching(UserFilter.builder().lastNamePrefix("Do_").build(), 0L, 10);
+
+        // Assert
+        assertThat(firstChunk).containsExactly(user1.getId());
+        assertThat(secondChunk).containsExactly(user2.getId());
+        assertThat(escapedMatch).containsExactly(user3.getId());
+    }
+
     @Test
     @DisplayName("Delete user - Successful")
     void deleteUser_Successful() {
@@ -0,0 +1,425 @@
+package com.apirest.servicies;
+
+import com.apirest.config.CacheConfig;
+import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.exceptions.InvalidUserIdException;
+import com.apirest.exceptions.UserNotFoundException;
+import com.apirest.models.BulkChangeResult;
+import com.apirest.models.BulkCreateResult;
+import com.apirest.models.BulkRowStatus;
+import com.apirest.models.UserEntity;
+import com.apirest.models.UserFilter;
+import com.apirest.models.UserImportResult;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.apirest.repositories.UserRepository;
+import com.apirest.singleflight.SingleFlight;
+import com.apirest.watch.UserWatchHub;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserBulkServiceTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private UserChangeService userChangeService;
+
+    @Mock
+    private UserWatchHub userWatchHub;
+
+    @Mock
+    private SingleFlight<Long, UserEntity> userByIdFlight;
+
+    @Mock
+    private SingleFlight<String, List<UserEntity>> allUsersFlight;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private Cache usersCache;
+
+    @InjectMocks
+    private UserBulkService userBulkService;
+
+    @Test
+    @DisplayName("Create users in bulk - Successful")
+    @SuppressWarnings("unchecked")
+    void createUsersInBulk_Successful() {
+        // Arrange
+        UserEntity user1 = createUser("john.doe@example.com");
+        UserEntity user2 = createUser("jane.smith@example.com");
+
+        when(validator.validate(any(UserEntity.class))).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        BulkCreateResult result = userBulkService.addUsers(List.of(user1, user2));
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getRows())
+                .extracting(row -> row.getStatus())
+                .containsExactly(BulkRowStatus.CREATED, BulkRowStatus.CREATED);
+        verify(userRepository, times(1)).saveAll(List.of(user1, user2));
+        verify(userRepository, times(1)).flush();
+        verify(entityManager, times(1)).clear();
+    }
+
+    @Test
+    @DisplayName("Create users in bulk with conflicts and invalid rows - Reports result per row")
+    @SuppressWarnings("unchecked")
+    void createUsersInBulkWithConflictsAndInvalidRows_ReportsResultPerRow() {
+        // Arrange
+        UserEntity newUser = createUser("john.doe@example.com");
+        UserEntity duplicatedInRequest = createUser("john.doe@example.com");
+        UserEntity existingUser = createUser("jane.smith@example.com");
+        UserEntity invalidUser = createUser("invalid");
+
+        @SuppressWarnings("unchecked")
+        ConstraintViolation<UserEntity> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Invalid email format");
+        when(validator.validate(any(UserEntity.class))).thenReturn(Set.of());
+        when(validator.validate(invalidUser)).thenReturn(Set.of(violation));
+        when(userRepository.findExistingEmails(List.of("john.doe@example.com", "jane.smith@example.com")))
+                .thenReturn(Set.of("jane.smith@example.com"));
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        BulkCreateResult result = userBulkService.addUsers(List.of(newUser, duplicatedInRequest, existingUser, invalidUser));
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRows())
+                .extracting(row -> row.getStatus())
+                .containsExactly(BulkRowStatus.CREATED, BulkRowStatus.CONFLICT, BulkRowStatus.CONFLICT, BulkRowStatus.INVALID);
+        assertThat(result.getRows().get(2).getMessage()).isEqualTo("Email already exists: jane.smith@example.com");
+        assertThat(result.getRows().get(3).getMessage()).isEqualTo("Invalid email format");
+        verify(userRepository, times(1)).saveAll(List.of(newUser));
+    }
+
+    @Test
+    @DisplayName("Create users in bulk with empty list - Throws exception")
+    void createUsersInBulkWithEmptyList_ThrowsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> userBulkService.addUsers(List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Users to create must not be empty");
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Create users in bulk with database error - Throws exception")
+    @SuppressWarnings("unchecked")
+    void createUsersInBulkWithDatabaseError_ThrowsException() {
+        // Arrange
+        UserEntity user = createUser("john.doe@example.com");
+
+        when(validator.validate(any(UserEntity.class))).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        doThrow(new QueryTimeoutException("Query timed out")).when(userRepository).flush();
+
+        // Act & Assert
+        assertThatThrownBy(() -> userBulkService.addUsers(List.of(user)))
+                .isInstanceOf(DataBaseErrorException.class)
+                .hasMessageContaining("Error creating users: Query timed out");
+    }
+
+    @Test
+    @DisplayName("Create users in bulk losing an email race - Only the losing row rejected")
+    @SuppressWarnings("unchecked")
+    void createUsersInBulkLosingEmailRace_OnlyLosingRowRejected() {
+        // Arrange
+        UserEntity user1 = createUser("john.doe@example.com");
+        UserEntity user2 = createUser("jane.smith@example.com");
+
+        when(validator.validate(any(UserEntity.class))).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        doThrow(new DataIntegrityViolationException("Unique index violated"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("Unique index violated"))
+                .when(userRepository).flush();
+
+        // Act
+        BulkCreateResult result = userBulkService.addUsers(List.of(user1, user2));
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getRows())
+                .extracting(row -> row.getStatus())
+                .containsExactly(BulkRowStatus.CREATED, BulkRowStatus.CONFLICT);
+        assertThat(result.getRows().get(1).getMessage()).isEqualTo("Email already exists: jane.smith@example.com");
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Delete users in bulk with partial miss - Reports missing IDs")
+    void deleteUsersInBulkWithPartialMiss_ReportsMissingIds() {
+        // Arrange
+        when(userRepository.findExistingIds(List.of(1L, 2L, 3L))).thenReturn(Set.of(1L, 3L));
+        when(userRepository.deleteUsersByIdIn(List.of(1L, 3L))).thenReturn(2);
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+
+        // Act
+        BulkChangeResult result = userBulkService.deleteUsers(List.of(1L, 2L, 3L, 1L), false);
+
+        // Assert
+        assertThat(result.getMatched()).isEqualTo(3);
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(result.getMissingIds()).containsExactly(2L);
+        verify(usersCache, times(1)).evict(1L);
+        verify(usersCache, times(1)).evict(3L);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Delete users in bulk all or nothing with missing ID - Throws exception")
+    void deleteUsersInBulkAllOrNothingWithMissingId_ThrowsException() {
+        // Arrange
+        when(userRepository.lockUsersByIdIn(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userBulkService.deleteUsers(List.of(1L, 2L), true))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessageContaining("Users with IDs: [2] not found.");
+
+        verify(userRepository, never()).deleteUsersByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Delete users in bulk all or nothing - Rows locked before the existence check")
+    void deleteUsersInBulkAllOrNothing_RowsLockedBeforeExistenceCheck() {
+        // Arrange
+        when(userRepository.lockUsersByIdIn(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(userRepository.deleteUsersByIdIn(List.of(1L, 2L))).thenReturn(2);
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+
+        // Act
+        BulkChangeResult result = userBulkService.deleteUsers(List.of(1L, 2L), true);
+
+        // Assert
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(result.getMissingIds()).isEmpty();
+        InOrder inOrder = inOrder(userRepository);
+        inOrder.verify(userRepository).lockUsersByIdIn(List.of(1L, 2L));
+        inOrder.verify(userRepository).deleteUsersByIdIn(List.of(1L, 2L));
+        verify(userRepository, never()).findExistingIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Delete users in bulk with invalid ID - Throws exception")
+    void deleteUsersInBulkWithInvalidId_ThrowsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> userBulkService.deleteUsers(List.of(1L, -1L), false))
+                .isInstanceOf(InvalidUserIdException.class)
+                .hasMessageContaining("Invalid user ID: -1");
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Update users in bulk with database error - Throws exception")
+    void updateUsersInBulkWithDatabaseError_ThrowsException() {
+        // Arrange
+        UserEntity changes = UserEntity.builder().lastName("Smith").build();
+
+        when(validator.validateValue(UserEntity.class, "lastName", "Smith")).thenReturn(Set.of());
+        when(userRepository.findExistingIds(List.of(1L))).thenReturn(Set.of(1L));
+        when(userRepository.updateUserNamesByIdIn(List.of(1L), null, "Smith"))
+                .thenThrow(new QueryTimeoutException("Statement timed out"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userBulkService.updateUsers(List.of(1L), changes, false))
+                .isInstanceOf(DataBaseErrorException.class)
+                .hasMessageContaining("Error updating users: Statement timed out");
+    }
+
+    @Test
+    @DisplayName("Update users in bulk with email change - Throws exception")
+    void updateUsersInBulkWithEmailChange_ThrowsException() {
+        // Arrange
+        UserEntity changes = UserEntity.builder().email("john.doe@example.com").build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> userBulkService.updateUsers(List.of(1L), changes, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No fields to update");
+
+        UserEntity changesWithEmail = UserEntity.builder().firstName("Jane").email("jane@example.com").build();
+        assertThatThrownBy(() -> userBulkService.updateUsers(List.of(1L), changesWithEmail, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Email cannot be changed in bulk");
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Update users matching filter - Updates each chunk in its own transaction")
+    @SuppressWarnings("unchecked")
+    void updateUsersMatchingFilter_UpdatesEachChunkInItsOwnTransaction() {
+        // Arrange
+        UserFilter filter = UserFilter.builder().lastNamePrefix("Do").build();
+        UserEntity changes = UserEntity.builder().firstName("Jane").build();
+
+        when(validator.validateValue(UserEntity.class, "firstName", "Jane")).thenReturn(Set.of());
+        when(userRepository.findIdsMatching(eq(filter), eq(0L), anyInt())).thenReturn(List.of(4L, 9L));
+        when(userRepository.updateUserNamesByIdIn(List.of(4L, 9L), "Jane", null)).thenReturn(2);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+
+        // Act
+        BulkChangeResult result = userBulkService.updateUsersMatching(filter, changes);
+
+        // Assert
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(result.getMissingIds()).isEmpty();
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(usersCache, times(1)).evict(4L);
+        verify(usersCache, times(1)).evict(9L);
+    }
+
+    @Test
+    @DisplayName("Delete users matching empty filter - Throws exception")
+    void deleteUsersMatchingEmptyFilter_ThrowsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> userBulkService.deleteUsersMatching(new UserFilter()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Filter must have at least one criterion");
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Import users - Commits each chunk and reports rejected rows by input position")
+    @SuppressWarnings("unchecked")
+    void importUsers_CommitsEachChunkAndReportsRejectedRowsByInputPosition() {
+        // Arrange
+        ReflectionTestUtils.setField(userBulkService, "importChunkSize", 2);
+        UserEntity user1 = createUser("john.doe@example.com");
+        UserEntity user2 = createUser("jane.smith@example.com");
+        UserEntity user3 = createUser("jane.smith@example.com");
+        Iterator<UserEntity> users = List.of(user1, user2, user3).iterator();
+
+        when(validator.validate(any(UserEntity.class))).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(List.of("jane.smith@example.com"))).thenReturn(Set.of("jane.smith@example.com"));
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        UserImportResult result = userBulkService.importUsers(users);
+
+        // Assert
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getRejectedRows())
+                .extracting(row -> row.getIndex(), row -> row.getStatus())
+                .containsExactly(tuple(2, BulkRowStatus.CONFLICT));
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Import users with malformed row - Skips the row and continues")
+    @SuppressWarnings("unchecked")
+    void importUsersWithMalformedRow_SkipsTheRowAndContinues() {
+        // Arrange
+        UserEntity user = createUser("john.doe@example.com");
+        Iterator<UserEntity> users = mock(Iterator.class);
+        when(users.hasNext()).thenReturn(true, true, false);
+        when(users.next())
+                .thenThrow(new RuntimeJsonMappingException(JsonMappingException.from((JsonParser) null,
+                        "Cannot deserialize value of type `java.lang.Long`")))
+                .thenReturn(user);
+
+        when(validator.validate(any(UserEntity.class))).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        UserImportResult result = userBulkService.importUsers(users);
+
+        // Assert
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getRejectedRows().get(0).getIndex()).isZero();
+        assertThat(result.getRejectedRows().get(0).getStatus()).isEqualTo(BulkRowStatus.INVALID);
+        assertThat(result.getRejectedRows().get(0).getMessage())
+                .isEqualTo("Malformed row: Cannot deserialize value of type `java.lang.Long`");
+    }
+
+    private UserEntity createUser(String email) {
+        return UserEntity.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email(email)
+                .build();
+    }
+}
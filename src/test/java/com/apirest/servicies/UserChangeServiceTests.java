@@ -0,0 +1,218 @@
+package com.apirest.servicies;
+
+import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.models.UserChange;
+import com.apirest.models.UserChangeType;
+import com.apirest.models.UserEntity;
+import com.apirest.outbox.UserChangeRelay;
+import com.apirest.outbox.UserChangeSink;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own database, so that the relays of other cached contexts do not publish these changes, and
+// changes are only published when a test asks for it.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-changes;DB_CLOSE_DELAY=-1",
+        "users.outbox.relay-interval=1h"
+})
+@AutoConfigureMockMvc
+public class UserChangeServiceTests {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private UserChangeRelay userChangeRelay;
+
+    @Autowired
+    private RecordingUserChangeSink userChangeSink;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        userChangeRelay.publishPending();
+        userChangeSink.published.clear();
+    }
+
+    @Test
+    @DisplayName("Change a user - Changes published in order")
+    void changeUser_ChangesPublishedInOrder() {
+        // Arrange
+        UserEntity user = createUser("Ada", "ada.changes@example.com");
+
+        // Act
+        userService.addUser(user);
+        userService.updateUserById(user.getId(), createUser("Ada", "lovelace.changes@example.com"));
+        userService.patchUserById(user.getId(), UserEntity.builder().firstName("Augusta").build());
+        userService.deleteUser(user.getId());
+        int published = userChangeRelay.publishPending();
+
+        // Assert
+        assertThat(published).isEqualTo(4);
+        assertThat(userChangeSink.published)
+                .extracting(UserChange::getUserId, UserChange::getType, UserChange::getFirstName, UserChange::getEmail)
+                .containsExactly(
+                        tuple(user.getId(), UserChangeType.CREATED, "Ada", "ada.changes@example.com"),
+                        tuple(user.getId(), UserChangeType.UPDATED, "Ada", "lovelace.changes@example.com"),
+                        tuple(user.getId(), UserChangeType.UPDATED, "Augusta", "lovelace.changes@example.com"),
+                        tuple(user.getId(), UserChangeType.DELETED, null, null));
+        assertThat(userChangeSink.published).extracting(UserChange::getSequenceNumber).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Rolled back write - No change recorded")
+    void rolledBackWrite_NoChangeRecorded() {
+        // Arrange
+        userService.addUser(createUser("Grace", "grace.changes@example.com"));
+        userChangeRelay.publishPending();
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.addUser(createUser("Grace", "grace.changes@example.com")))
+                .isInstanceOf(DataBaseErrorException.class);
+        assertThat(userChangeRelay.publishPending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Bulk operations - Changes recorded for each user")
+    void bulkOperations_ChangesRecordedForEachUser() {
+        // Arrange
+        List<UserEntity> users = List.of(createUser("Alan", "alan.changes@example.com"),
+                createUser("Alonzo", "alonzo.changes@example.com"));
+        userBulkService.addUsers(users);
+        List<Long> userIds = users.stream().map(UserEntity::getId).toList();
+
+        // Act
+        userBulkService.updateUsers(userIds, UserEntity.builder().lastName("Bulk").build(), true);
+        userBulkService.deleteUsers(userIds, true);
+        userChangeRelay.publishPending();
+
+        // Assert
+        assertThat(userChangeSink.published)
+                .extracting(UserChange::getType, UserChange::getLastName)
+                .containsExactly(
+                        tuple(UserChangeType.CREATED, "Changes"), tuple(UserChangeType.CREATED, "Changes"),
+                        tuple(UserChangeType.UPDATED, "Bulk"), tuple(UserChangeType.UPDATED, "Bulk"),
+                        tuple(UserChangeType.DELETED, "Bulk"), tuple(UserChangeType.DELETED, "Bulk"));
+    }
+
+    @Test
+    @DisplayName("Sink failure - Batch published again on the next pass")
+    void sinkFailure_BatchPublishedAgainOnNextPass() {
+        // Arrange
+        userService.addUser(createUser("Edsger", "edsger.changes@example.com"));
+        userChangeSink.failNext.set(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userChangeRelay.publishPending()).isInstanceOf(IllegalStateException.class);
+        assertThat(userChangeRelay.publishPending()).isEqualTo(1);
+        assertThat(userChangeSink.published).extracting(UserChange::getEmail).containsExactly("edsger.changes@example.com");
+    }
+
+    @Test
+    @DisplayName("Get changes since cursor - Published changes after it streamed in order")
+    void getChangesSinceCursor_PublishedChangesAfterItStreamedInOrder() throws Exception {
+        // Arrange
+        UserEntity first = createUser("Barbara", "barbara.changes@example.com");
+        UserEntity second = createUser("Tony", "tony.changes@example.com");
+        userService.addUser(first);
+        userChangeRelay.publishPending();
+        long since = userChangeSink.published.get(0).getSequenceNumber();
+        userService.addUser(second);
+        userService.deleteUser(first.getId());
+        userChangeRelay.publishPending();
+        userService.addUser(createUser("Unpublished", "unpublished.changes@example.com"));
+
+        // Act
+        List<JsonNode> changes = getChanges("/api/users/changes?since=" + since);
+        List<JsonNode> limitedChanges = getChanges("/api/users/changes?since=" + since + "&limit=1");
+
+        // Assert
+        assertThat(changes)
+                .extracting(change -> change.get("sequenceNumber").asLong(), change -> change.get("userId").asLong(),
+                        change -> change.get("type").asText())
+                .containsExactly(
+                        tuple(since + 1, second.getId(), "CREATED"),
+                        tuple(since + 2, first.getId(), "DELETED"));
+        assertThat(limitedChanges).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Get changes with invalid limit - Bad request")
+    void getChangesWithInvalidLimit_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/changes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<JsonNode> getChanges(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> changes = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                changes.add(objectMapper.readTree(line));
+            }
+        }
+        return changes;
+    }
+
+    private static UserEntity createUser(String firstName, String email) {
+        return UserEntity.builder()
+                .firstName(firstName)
+                .lastName("Changes")
+                .email(email)
+                .build();
+    }
+
+    @TestConfiguration
+    static class RecordingSinkConfig {
+        @Bean
+        RecordingUserChangeSink recordingUserChangeSink() {
+            return new RecordingUserChangeSink();
+        }
+    }
+
+    static class RecordingUserChangeSink implements UserChangeSink {
+        final List<UserChange> published = new ArrayList<>();
+        final AtomicBoolean failNext = new AtomicBoolean();
+
+        @Override
+        public void publish(List<UserChange> changes) {
+            if (failNext.getAndSet(false)) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            published.addAll(changes);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.apirest.servicies;
+
+import com.apirest.exceptions.DataBaseErrorException;
+import com.apirest.models.IngestionStatus;
+import com.apirest.models.IngestionTicket;
+import com.apirest.models.UserEntity;
+import com.apirest.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "users.ingestion.async-enabled=true")
+public class UserIngestionServiceTests {
+    @Autowired
+    private UserIngestionService userIngestionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Submit user - Persisted by background writer")
+    void submitUser_PersistedByBackgroundWriter() throws InterruptedException {
+        // Arrange
+        UserEntity user = createUser("ingested@example.com");
+
+        // Act
+        IngestionTicket submittedTicket = userIngestionService.submit(user);
+        IngestionTicket completedTicket = awaitCompletion(submittedTicket.getTrackingId());
+
+        // Assert
+        assertThat(submittedTicket.getStatus()).isEqualTo(IngestionStatus.PENDING);
+        assertThat(completedTicket.getStatus()).isEqualTo(IngestionStatus.PERSISTED);
+        assertThat(userRepository.findById(completedTicket.getUserId())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Submit user with existing email - Rejected by background writer")
+    void submitUserWithExistingEmail_RejectedByBackgroundWriter() throws InterruptedException {
+        // Arrange
+        userRepository.save(createUser("taken@example.com"));
+
+        // Act
+        IngestionTicket submittedTicket = userIngestionService.submit(createUser("taken@example.com"));
+        IngestionTicket completedTicket = awaitCompletion(submittedTicket.getTrackingId());
+
+        // Assert
+        assertThat(completedTicket.getStatus()).isEqualTo(IngestionStatus.REJECTED);
+        assertThat(completedTicket.getMessage()).isEqualTo("Email already exists: taken@example.com");
+    }
+
+    @Test
+    @DisplayName("Per-user fallback with an unexpected error - Only that user rejected")
+    void perUserFallbackWithUnexpectedError_OnlyThatUserRejected() throws Exception {
+        // Arrange
+        UserBulkService failingBulkService = mock(UserBulkService.class);
+        UserService singleUserService = mock(UserService.class);
+        UserIngestionService ingestionService = newIngestionService(failingBulkService, singleUserService, 100);
+
+        // Holds the writer until every user is queued, so the valid and the invalid one share a batch.
+        CountDownLatch nextUsersQueued = new CountDownLatch(1);
+        when(failingBulkService.addUsers(anyList())).thenAnswer(invocation -> {
+            List<UserEntity> users = invocation.getArgument(0);
+            if (users.get(0).getEmail().equals("first@example.com")) {
+                nextUsersQueued.await(5, TimeUnit.SECONDS);
+            }
+            throw new DataBaseErrorException("Email already exists");
+        });
+        AtomicLong nextId = new AtomicLong();
+        doAnswer(invocation -> {
+            UserEntity user = invocation.getArgument(0);
+            if (user.getEmail().equals("invalid@example.com")) {
+                throw new TransactionSystemException("Could not commit JPA transaction");
+            }
+            user.setId(nextId.incrementAndGet());
+            return null;
+        }).when(singleUserService).addUser(any());
+        ingestionService.start();
+
+        try {
+            // Act
+            ingestionService.submit(createUser("first@example.com"));
+            IngestionTicket validTicket = ingestionService.submit(createUser("valid@example.com"));
+            IngestionTicket invalidTicket = ingestionService.submit(createUser("invalid@example.com"));
+            nextUsersQueued.countDown();
+
+            // Assert
+            assertThat(awaitCompletion(ingestionService, validTicket.getTrackingId()).getStatus())
+                    .isEqualTo(IngestionStatus.PERSISTED);
+            IngestionTicket rejectedTicket = awaitCompletion(ingestionService, invalidTicket.getTrackingId());
+            assertThat(rejectedTicket.getStatus()).isEqualTo(IngestionStatus.REJECTED);
+            assertThat(rejectedTicket.getMessage()).isEqualTo("Could not commit JPA transaction");
+        } finally {
+            ingestionService.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("More tickets than the limit - Extra tickets evicted and not found")
+    void moreTicketsThanLimit_ExtraTicketsEvictedAndNotFound() throws Exception {
+        // Arrange
+        UserBulkService blockedBulkService = mock(UserBulkService.class);
+        UserIngestionService ingestionService = newIngestionService(blockedBulkService, mock(UserService.class), 2);
+        CountDownLatch writerReleased = new CountDownLatch(1);
+        when(blockedBulkService.addUsers(anyList())).thenAnswer(invocation -> {
+            writerReleased.await(5, TimeUnit.SECONDS);
+            throw new DataBaseErrorException("Database unavailable");
+        });
+        ingestionService.start();
+
+        try {
+            // Act
+            List<String> trackingIds = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                trackingIds.add(ingestionService.submit(createUser("user" + i + "@example.com")).getTrackingId());
+            }
+            Cache<?, ?> tickets = (Cache<?, ?>) ReflectionTestUtils.getField(ingestionService, "tickets");
+            tickets.cleanUp();
+
+            // Assert
+            assertThat(tickets.estimatedSize()).isLessThanOrEqualTo(2);
+            assertThat(trackingIds.stream().filter(trackingId -> ingestionService.getTicket(trackingId).isEmpty()))
+                    .hasSizeGreaterThanOrEqualTo(4);
+        } finally {
+            writerReleased.countDown();
+            ingestionService.stop();
+        }
+    }
+
+    private static UserIngestionService newIngestionService(UserBulkService userBulkService, UserService userService,
+                                                            long maxTickets) {
+        UserIngestionService ingestionService = new UserIngestionService();
+        ReflectionTestUtils.setField(ingestionService, "userBulkService", userBulkService);
+        ReflectionTestUtils.setField(ingestionService, "userService", userService);
+        ReflectionTestUtils.setField(ingestionService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestionService, "enabled", true);
+        ReflectionTestUtils.setField(ingestionService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(ingestionService, "batchSize", 10);
+        ReflectionTestUtils.setField(ingestionService, "statusTimeToLive", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(ingestionService, "maxTickets", maxTickets);
+        return ingestionService;
+    }
+
+    private IngestionTicket awaitCompletion(String trackingId) throws InterruptedException {
+        return awaitCompletion(userIngestionService, trackingId);
+    }
+
+    private static IngestionTicket awaitCompletion(UserIngestionService userIngestionService, String trackingId)
+            throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            IngestionTicket ticket = userIngestionService.getTicket(trackingId).orElseThrow();
+            if (ticket.getStatus() != IngestionStatus.PENDING) {
+                return ticket;
+            }
+            Thread.sleep(50);
+        }
+
+        throw new AssertionError("Ingestion ticket " + trackingId + " is still pending");
+    }
+
+    private static UserEntity createUser(String email) {
+        UserEntity user = new UserEntity();
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail(email);
+
+        return user;
+    }
+}
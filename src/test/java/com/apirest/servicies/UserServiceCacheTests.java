@@ -0,0 +1,132 @@
+package com.apirest.servicies;
+
+import com.apirest.config.CacheConfig;
+import com.apirest.models.UserEntity;
+import com.apirest.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class UserServiceCacheTests {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+    }
+
+    @Test
+    @DisplayName("Get user twice - Second lookup served from cache")
+    void getUserTwice_SecondLookupServedFromCache() {
+        // Arrange
+        UserEntity user = createUser();
+        Long userId = user.getId();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        UserEntity firstLookup = userService.getUserById(userId);
+        UserEntity secondLookup = userService.getUserById(userId);
+
+        // Assert
+        assertThat(firstLookup).isEqualTo(user);
+        assertThat(secondLookup).isEqualTo(user);
+        verify(userRepository, times(1)).findById(userId);
+    }
+
+    @Test
+    @DisplayName("Update user - Evicts cached user")
+    void updateUser_EvictsCachedUser() {
+        // Arrange
+        UserEntity user = createUser();
+        Long userId = user.getId();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.updateUserById(userId, "John", "Doe", "john.doe@example.com")).thenReturn(1);
+        userService.getUserById(userId);
+
+        // Act
+        userService.updateUserById(userId, createUser());
+        userService.getUserById(userId);
+
+        // Assert
+        assertThat(cacheManager.getCache(CacheConfig.USERS_CACHE).get(userId)).isNotNull();
+        verify(userRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    @DisplayName("Delete user - Evicts cached user")
+    void deleteUser_EvictsCachedUser() {
+        // Arrange
+        UserEntity user = createUser();
+        Long userId = user.getId();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.deleteUserById(userId)).thenReturn(1);
+        userService.getUserById(userId);
+
+        // Act
+        userService.deleteUser(userId);
+
+        // Assert
+        assertThat(cacheManager.getCache(CacheConfig.USERS_CACHE).get(userId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Get user - Exposes cache hit and miss counters")
+    void getUser_ExposesCacheHitAndMissCounters() {
+        // Arrange
+        UserEntity user = createUser();
+        Long userId = user.getId();
+        double hitsBefore = cacheGets("hit");
+        double missesBefore = cacheGets("miss");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        userService.getUserById(userId);
+        userService.getUserById(userId);
+
+        // Assert
+        assertThat(cacheGets("hit") - hitsBefore).isEqualTo(1.0);
+        assertThat(cacheGets("miss") - missesBefore).isEqualTo(1.0);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.USERS_CACHE)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private UserEntity createUser() {
+        return UserEntity.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .build();
+    }
+}
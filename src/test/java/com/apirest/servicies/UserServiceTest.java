@@ -1,21 +1,43 @@
 package com.apirest.servicies;
 
+import com.apirest.exceptions.DataBaseErrorException;
 import com.apirest.exceptions.UserNotFoundException;
+import com.apirest.exceptions.UserVersionMismatchException;
 import com.apirest.models.UserEntity;
+import com.apirest.models.UserPage;
+import com.apirest.models.UserSummary;
+import com.apirest.models.UserViewPage;
 import com.apirest.repositories.UserRepository;
+import com.apirest.singleflight.SingleFlight;
+import com.apirest.watch.UserWatchHub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +45,24 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private UserChangeService userChangeService;
+
+    @Mock
+    private UserWatchHub userWatchHub;
+
+    @Spy
+    private SingleFlight<Long, UserEntity> userByIdFlight = new SingleFlight<>("user-by-id", new SimpleMeterRegistry());
+
+    @Spy
+    private SingleFlight<String, List<UserEntity>> allUsersFlight = new SingleFlight<>("all-users", new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
 
@@ -70,7 +110,8 @@ public class UserServiceTest {
         // Act & Assert
         assertThatThrownBy(() -> userService.getUserById(nonExistentId))
                 .isInstanceOf(UserNotFoundException.class)
-                .hasMessageContaining("User with ID: " + nonExistentId + " not found.");
+                .hasMessageContaining("User with ID: " + nonExistentId + " not found.")
+                .satisfies(ex -> assertThat(ex.getStackTrace()).isEmpty());
 
         verify(userRepository, times(1)).findById(nonExistentId);
     }
@@ -84,11 +125,84 @@ public class UserServiceTest {
         // Act & Assert
         assertThatThrownBy(() -> userService.getUserById(invalidId))
                 .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Invalid user ID: " + invalidId);
+                .hasMessageContaining("Invalid user ID: " + invalidId)
+                .satisfies(ex -> assertThat(ex.getStackTrace()).isEmpty());
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Get user by email - Successful")
+    void getUserByEmail_Successful() {
+        // Arrange
+        UserEntity user = createUser();
+
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        // Act
+        UserEntity foundUser = userService.getUserByEmail(user.getEmail());
+
+        // Assert
+        assertThat(foundUser).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("Get user by non existent email - Throws exception")
+    void getUserByNonExistentEmail_ThrowsException() {
+        // Arrange
+        String email = "nobody@example.com";
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.getUserByEmail(email))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessageContaining("User with email: " + email + " not found.");
+    }
+
+    @Test
+    @DisplayName("Search users by last name prefix - Successful")
+    void searchUsersByLastNamePrefix_Successful() {
+        // Arrange
+        UserEntity user = createUser();
+
+        when(userRepository.findByLastNameStartingWithOrderByLastNameAscFirstNameAscIdAsc("Do", Limit.of(10)))
+                .thenReturn(List.of(user));
+
+        // Act
+        List<UserEntity> foundUsers = userService.searchUsersByLastNamePrefix("Do", 10);
+
+        // Assert
+        assertThat(foundUsers).containsExactly(user);
+    }
+
+    @Test
+    @DisplayName("Search users by blank last name prefix - Throws exception")
+    void searchUsersByBlankLastNamePrefix_ThrowsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> userService.searchUsersByLastNamePrefix(" ", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid last name prefix");
 
         verifyNoInteractions(userRepository);
     }
 
+    @Test
+    @DisplayName("Search users by name - Successful")
+    void searchUsersByName_Successful() {
+        // Arrange
+        UserEntity user = createUser();
+
+        when(userRepository.findByFirstNameAndLastNameOrderByIdAsc("John", "Doe", Limit.of(10)))
+                .thenReturn(List.of(user));
+
+        // Act
+        List<UserEntity> foundUsers = userService.searchUsersByName("John", "Doe", 10);
+
+        // Assert
+        assertThat(foundUsers).containsExactly(user);
+    }
+
     @Test
     @DisplayName("Get all users - Successful")
     void getAllUsers_Successful() {
@@ -120,6 +234,340 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Get users page with more results - Returns next cursor")
+    void getUsersPageWithMoreResults_ReturnsNextCursor() {
+        // Arrange
+        UserEntity user1 = createUser();
+        UserEntity user2 = UserEntity.builder()
+                .id(2L)
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .build();
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(user1, user2));
+
+        // Act
+        UserPage usersPage = userService.getUsersPage(null, 1);
+
+        // Assert
+        assertThat(usersPage.getUsers()).containsExactly(user1);
+        assertThat(usersPage.getNextCursor()).isEqualTo(UserService.encodeCursor(user1.getId()));
+    }
+
+    @Test
+    @DisplayName("Get users page from cursor on last page - Returns no next cursor")
+    void getUsersPageFromCursorOnLastPage_ReturnsNoNextCursor() {
+        // Arrange
+        UserEntity user = UserEntity.builder()
+                .id(2L)
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .build();
+        String cursor = UserService.encodeCursor(1L);
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(11))).thenReturn(List.of(user));
+
+        // Act
+        UserPage usersPage = userService.getUsersPage(cursor, 10);
+
+        // Assert
+        assertThat(usersPage.getUsers()).containsExactly(user);
+        assertThat(usersPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Get users page with invalid page size - Throws exception")
+    void getUsersPageWithInvalidPageSize_ThrowsException() {
+        // Arrange
+        int invalidLimit = UserService.MAX_PAGE_SIZE + 1;
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.getUsersPage(null, invalidLimit))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid page size: " + invalidLimit);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Get users page with invalid cursor - Throws exception")
+    void getUsersPageWithInvalidCursor_ThrowsException() {
+        // Arrange
+        String invalidCursor = "not-a-cursor";
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.getUsersPage(invalidCursor, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor: " + invalidCursor);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Get user summary - Successful")
+    void getUserSummary_Successful() {
+        // Arrange
+        UserSummary summary = new UserSummary(1L, "John", "Doe", "john.doe@example.com");
+
+        when(userRepository.findSummaryById(1L)).thenReturn(Optional.of(summary));
+
+        // Act
+        UserSummary foundSummary = userService.getUserSummaryById(1L);
+
+        // Assert
+        assertThat(foundSummary).isEqualTo(summary);
+    }
+
+    @Test
+    @DisplayName("Get user fields - Returns only selected fields")
+    void getUserFields_ReturnsOnlySelectedFields() {
+        // Arrange
+        Map<String, Object> row = new HashMap<>(Map.of("id", 1L, "email", "john.doe@example.com"));
+
+        when(userRepository.findFieldsById(1L, Set.of("email"))).thenReturn(Optional.of(row));
+
+        // Act
+        Map<String, Object> userFields = userService.getUserFieldsById(1L, Set.of("email"));
+
+        // Assert
+        assertThat(userFields).containsOnly(Map.entry("email", "john.doe@example.com"));
+    }
+
+    @Test
+    @DisplayName("Get user fields with unknown field - Throws exception")
+    void getUserFieldsWithUnknownField_ThrowsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> userService.getUserFieldsById(1L, Set.of("email", "password")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown fields: [password]");
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Get user fields page with more results - Returns next cursor")
+    void getUserFieldsPageWithMoreResults_ReturnsNextCursor() {
+        // Arrange
+        Set<String> fields = new LinkedHashSet<>(List.of("id", "lastName"));
+        List<Map<String, Object>> rows = List.of(
+                new HashMap<>(Map.of("id", 1L, "lastName", "Doe")),
+                new HashMap<>(Map.of("id", 2L, "lastName", "Smith")));
+
+        when(userRepository.findFieldsByIdGreaterThan(0L, fields, 2)).thenReturn(rows);
+
+        // Act
+        UserViewPage<Map<String, Object>> fieldsPage = userService.getUserFieldsPage(null, 1, Set.of("lastName", "id"));
+
+        // Assert
+        assertThat(fieldsPage.getUsers()).containsExactly(Map.of("id", 1L, "lastName", "Doe"));
+        assertThat(fieldsPage.getNextCursor()).isEqualTo(UserService.encodeCursor(1L));
+    }
+
+    @Test
+    @DisplayName("Get user summaries page on last page - Returns no next cursor")
+    void getUserSummariesPageOnLastPage_ReturnsNoNextCursor() {
+        // Arrange
+        UserSummary summary = new UserSummary(1L, "John", "Doe", "john.doe@example.com");
+
+        when(userRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).thenReturn(List.of(summary));
+
+        // Act
+        UserViewPage<UserSummary> summariesPage = userService.getUserSummariesPage(null, 10);
+
+        // Assert
+        assertThat(summariesPage.getUsers()).containsExactly(summary);
+        assertThat(summariesPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Stream all users - Detaches each streamed user")
+    void streamAllUsers_DetachesEachStreamedUser() {
+        // Arrange
+        UserEntity user = createUser();
+        List<UserEntity> streamedUsers = new ArrayList<>();
+
+        when(userRepository.streamAllOrderedById()).thenReturn(Stream.of(user));
+
+        // Act
+        userService.streamAllUsers(streamedUsers::add);
+
+        // Assert
+        assertThat(streamedUsers).containsExactly(user);
+        verify(entityManager, times(1)).detach(user);
+    }
+
+    @Test
+    @DisplayName("Update user - Successful")
+    void updateUser_Successful() {
+        // Arrange
+        UserEntity updatedUser = createUser();
+        Long userId = updatedUser.getId();
+
+        when(userRepository.updateUserById(userId, "John", "Doe", "john.doe@example.com")).thenReturn(1);
+
+        // Act
+        userService.updateUserById(userId, updatedUser);
+
+        // Assert
+        verify(userRepository, times(1)).updateUserById(userId, "John", "Doe", "john.doe@example.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Update user with non existent id - Throws exception")
+    void updateUserWithNonExistentId_ThrowsException() {
+        // Arrange
+        Long nonExistentId = 999L;
+        UserEntity updatedUser = createUser();
+
+        when(userRepository.updateUserById(eq(nonExistentId), anyString(), anyString(), anyString())).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.updateUserById(nonExistentId, updatedUser))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessageContaining("User with ID: " + nonExistentId + " not found.");
+    }
+
+    @Test
+    @DisplayName("Update user with expected version - Successful")
+    void updateUserWithExpectedVersion_Successful() {
+        // Arrange
+        UserEntity updatedUser = createUser();
+        Long userId = updatedUser.getId();
+
+        when(userRepository.updateUserByIdAndVersion(userId, 2L, "John", "Doe", "john.doe@example.com")).thenReturn(1);
+
+        // Act
+        userService.updateUserById(userId, updatedUser, 2L);
+
+        // Assert
+        verify(userRepository, times(1)).updateUserByIdAndVersion(userId, 2L, "John", "Doe", "john.doe@example.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Update user with stale version - Throws exception")
+    void updateUserWithStaleVersion_ThrowsException() {
+        // Arrange
+        UserEntity updatedUser = createUser();
+        Long userId = updatedUser.getId();
+
+        when(userRepository.updateUserByIdAndVersion(eq(userId), eq(2L), anyString(), anyString(), anyString())).thenReturn(0);
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.updateUserById(userId, updatedUser, 2L))
+                .isInstanceOf(UserVersionMismatchException.class)
+                .hasMessage("User with ID: " + userId + " is no longer at version 2.");
+    }
+
+    @Test
+    @DisplayName("Update user with expected version and non existent id - Throws exception")
+    void updateUserWithExpectedVersionAndNonExistentId_ThrowsException() {
+        // Arrange
+        Long nonExistentId = 999L;
+        UserEntity updatedUser = createUser();
+
+        when(userRepository.updateUserByIdAndVersion(eq(nonExistentId), eq(2L), anyString(), anyString(), anyString())).thenReturn(0);
+        when(userRepository.existsById(nonExistentId)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.updateUserById(nonExistentId, updatedUser, 2L))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessageContaining("User with ID: " + nonExistentId + " not found.");
+    }
+
+    @Test
+    @DisplayName("Update user with duplicated email - Throws exception")
+    void updateUserWithDuplicatedEmail_ThrowsException() {
+        // Arrange
+        UserEntity updatedUser = createUser();
+        Long userId = updatedUser.getId();
+
+        when(userRepository.updateUserById(eq(userId), anyString(), anyString(), anyString()))
+                .thenThrow(new DataIntegrityViolationException("Unique index violated"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.updateUserById(userId, updatedUser))
+                .isInstanceOf(DataBaseErrorException.class)
+                .hasMessageContaining("Error updating user: Unique index violated");
+    }
+
+    @Test
+    @DisplayName("Patch user - Writes only changed fields")
+    void patchUser_WritesOnlyChangedFields() {
+        // Arrange
+        Long userId = 1L;
+        UserEntity changes = UserEntity.builder()
+                .email("john.new@example.com")
+                .build();
+
+        when(validator.validateValue(UserEntity.class, "email", "john.new@example.com")).thenReturn(Set.of());
+        when(userRepository.patchUserById(userId, changes)).thenReturn(1);
+
+        // Act
+        userService.patchUserById(userId, changes);
+
+        // Assert
+        verify(userRepository, times(1)).patchUserById(userId, changes);
+        verify(validator, never()).validateValue(eq(UserEntity.class), eq("firstName"), any());
+        verify(validator, never()).validateValue(eq(UserEntity.class), eq("lastName"), any());
+    }
+
+    @Test
+    @DisplayName("Patch user with invalid field - Throws exception")
+    void patchUserWithInvalidField_ThrowsException() {
+        // Arrange
+        Long userId = 1L;
+        UserEntity changes = UserEntity.builder()
+                .email("john.doe")
+                .build();
+
+        @SuppressWarnings("unchecked")
+        ConstraintViolation<UserEntity> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Invalid email format");
+        when(validator.validateValue(UserEntity.class, "email", "john.doe")).thenReturn(Set.of(violation));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patchUserById(userId, changes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid email format");
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Patch user without changes - Throws exception")
+    void patchUserWithoutChanges_ThrowsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patchUserById(1L, new UserEntity()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No fields to update");
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Patch user with non existent id - Throws exception")
+    void patchUserWithNonExistentId_ThrowsException() {
+        // Arrange
+        Long nonExistentId = 999L;
+        UserEntity changes = UserEntity.builder()
+                .firstName("Johnny")
+                .build();
+
+        when(validator.validateValue(UserEntity.class, "firstName", "Johnny")).thenReturn(Set.of());
+        when(userRepository.patchUserById(nonExistentId, changes)).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patchUserById(nonExistentId, changes))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessageContaining("User with ID: " + nonExistentId + " not found.");
+    }
+
     @Test
     @DisplayName("Delete user - Successful")
     void deleteUser_Successful() {
@@ -127,14 +575,14 @@ public class UserServiceTest {
         UserEntity user = createUser();
         Long userId = user.getId();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.deleteUserById(userId)).thenReturn(1);
 
         // Act
         userService.deleteUser(userId);
 
         // Assert
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).delete(user);
+        verify(userRepository, times(1)).deleteUserById(userId);
+        verifyNoMoreInteractions(userRepository);
     }
 
     @Test
@@ -143,14 +591,14 @@ public class UserServiceTest {
         // Arrange
         Long nonExistentId = 999L;
 
-        when(userRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(userRepository.deleteUserById(nonExistentId)).thenReturn(0);
 
         // Act & Assert
         assertThatThrownBy(() -> userService.deleteUser(nonExistentId))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessageContaining("User with ID: " + nonExistentId + " not found.");
 
-        verify(userRepository, times(1)).findById(nonExistentId);
+        verify(userRepository, times(1)).deleteUserById(nonExistentId);
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -0,0 +1,243 @@
+package com.apirest.singleflight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("user-by-id", meterRegistry);
+
+    @Test
+    @DisplayName("Concurrent lookups of a key - One query shared by all")
+    void concurrentLookupsOfKey_OneQuerySharedByAll() throws Exception {
+        // Arrange
+        CountDownLatch queryRunning = new CountDownLatch(1);
+        CountDownLatch queryReleased = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<String>> results = new ArrayList<>();
+            results.add(callers.submit(() -> singleFlight.execute(1L, () -> {
+                queries.incrementAndGet();
+                queryRunning.countDown();
+                await(queryReleased);
+                return "Ada";
+            })));
+            queryRunning.await();
+            for (int i = 0; i < 7; i++) {
+                results.add(callers.submit(() -> singleFlight.execute(1L, () -> {
+                    queries.incrementAndGet();
+                    return "Other";
+                })));
+            }
+            awaitCoalesced(7);
+            queryReleased.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Ada");
+            }
+            assertThat(queries).hasValue(1);
+            assertThat(executedCount()).isEqualTo(1);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Shared query fails - Every waiter gets the exception")
+    void sharedQueryFails_EveryWaiterGetsTheException() throws Exception {
+        // Arrange
+        CountDownLatch queryRunning = new CountDownLatch(1);
+        CountDownLatch queryReleased = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> leader = callers.submit(() -> singleFlight.execute(1L, () -> {
+                queryRunning.countDown();
+                await(queryReleased);
+                throw new IllegalStateException("Database unavailable");
+            }));
+            queryRunning.await();
+            Future<String> waiter = callers.submit(() -> singleFlight.execute(1L, () -> "Ada"));
+            awaitCoalesced(1);
+
+            // Act
+            queryReleased.countDown();
+
+            // Assert
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(singleFlight.execute(1L, () -> "Ada")).isEqualTo("Ada");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Lookup in a transaction or after forget - Runs its own query")
+    void lookupInTransactionOrAfterForget_RunsItsOwnQuery() throws Exception {
+        // Arrange
+        CountDownLatch queryRunning = new CountDownLatch(1);
+        CountDownLatch queryReleased = new CountDownLatch(1);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> leader = callers.submit(() -> singleFlight.execute(1L, () -> {
+                queryRunning.countDown();
+                await(queryReleased);
+                return "Ada";
+            }));
+            queryRunning.await();
+
+            // Act
+            String inTransaction;
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                inTransaction = singleFlight.execute(1L, () -> "Augusta");
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+            singleFlight.forget(1L);
+            String afterForget = singleFlight.execute(1L, () -> "Lovelace");
+            queryReleased.countDown();
+
+            // Assert
+            assertThat(inTransaction).isEqualTo("Augusta");
+            assertThat(afterForget).isEqualTo("Lovelace");
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("Ada");
+            assertThat(coalescedCount()).isZero();
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    // Few users take most of the lookups, as with a popular profile: the hot keys should mostly
+    // share queries, and every caller must still get the value of the key it asked for.
+    @Test
+    @DisplayName("Zipfian lookups from many threads - Hot keys coalesced and results correct")
+    void zipfianLookupsFromManyThreads_HotKeysCoalescedAndResultsCorrect() throws Exception {
+        // Arrange
+        int keys = 1000;
+        int threads = 16;
+        int lookupsPerThread = 300;
+        double[] zipfCdf = zipfCdf(keys, 1.1);
+        AtomicIntegerArray queriesByKey = new AtomicIntegerArray(keys + 1);
+        AtomicIntegerArray lookupsByKey = new AtomicIntegerArray(keys + 1);
+        AtomicInteger wrongResults = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            // Act
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                workers.add(callers.submit(() -> {
+                    await(start);
+                    for (int i = 0; i < lookupsPerThread; i++) {
+                        long key = sampleZipf(zipfCdf, random);
+                        lookupsByKey.incrementAndGet((int) key);
+                        String user = singleFlight.execute(key, () -> {
+                            queriesByKey.incrementAndGet((int) key);
+                            sleep(1);
+                            return "user-" + key;
+                        });
+                        if (!user.equals("user-" + key)) {
+                            wrongResults.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            int totalQueries = 0;
+            for (int key = 1; key <= keys; key++) {
+                totalQueries += queriesByKey.get(key);
+            }
+            assertThat(wrongResults).hasValue(0);
+            assertThat(executedCount()).isEqualTo(totalQueries);
+            assertThat(executedCount() + coalescedCount()).isEqualTo(threads * lookupsPerThread);
+            assertThat(coalescedCount()).isPositive();
+            assertThat(queriesByKey.get(1)).isLessThan(lookupsByKey.get(1));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalescedCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(coalescedCount()).isEqualTo(expected);
+    }
+
+    private long executedCount() {
+        return (long) meterRegistry.get("users.lookups.executed").counter().count();
+    }
+
+    private long coalescedCount() {
+        return (long) meterRegistry.get("users.lookups.coalesced").counter().count();
+    }
+
+    private static double[] zipfCdf(int keys, double exponent) {
+        double[] cdf = new double[keys];
+        double sum = 0;
+        for (int rank = 1; rank <= keys; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < keys; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static long sampleZipf(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return (index >= 0 ? index : -index - 1) + 1L;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
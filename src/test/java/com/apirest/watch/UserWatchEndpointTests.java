@@ -0,0 +1,119 @@
+package com.apirest.watch;
+
+import com.apirest.models.UserEntity;
+import com.apirest.servicies.UserBulkService;
+import com.apirest.servicies.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserWatchEndpointTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private UserWatchHub userWatchHub;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Watch user - Committed changes pushed")
+    void watchUser_CommittedChangesPushed() throws Exception {
+        // Arrange
+        UserEntity user = createUser("Ada", "ada.watch@example.com");
+        userService.addUser(user);
+        MockHttpServletResponse response = watch("/api/users/watch?ids=" + user.getId());
+
+        // Act
+        userService.patchUserById(user.getId(), UserEntity.builder().firstName("Augusta").build());
+        userBulkService.updateUsers(List.of(user.getId()), UserEntity.builder().lastName("Byron").build(), true);
+        userService.deleteUser(user.getId());
+
+        // Assert
+        String events = awaitContent(response, "\"type\":\"DELETED\"");
+        assertThat(events).contains("event:user");
+        assertThat(events.indexOf("\"firstName\":\"Augusta\"")).isPositive()
+                .isLessThan(events.indexOf("\"lastName\":\"Byron\""));
+    }
+
+    @Test
+    @DisplayName("Rolled back write - Nothing pushed")
+    void rolledBackWrite_NothingPushed() throws Exception {
+        // Arrange
+        UserEntity user = createUser("Grace", "grace.watch@example.com");
+        userService.addUser(user);
+        UserEntity other = createUser("Edsger", "edsger.watch@example.com");
+        userService.addUser(other);
+        MockHttpServletResponse response = watch("/api/users/watch?ids=" + user.getId() + "," + other.getId());
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.patchUserById(user.getId(), UserEntity.builder().firstName("Hopper").build());
+            status.setRollbackOnly();
+        });
+        userService.patchUserById(other.getId(), UserEntity.builder().firstName("Dijkstra").build());
+
+        // Assert
+        String events = awaitContent(response, "\"firstName\":\"Dijkstra\"");
+        assertThat(events).doesNotContain("Hopper");
+    }
+
+    @Test
+    @DisplayName("Watch invalid user ID - Bad request")
+    void watchInvalidUserId_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/watch").param("ids", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletResponse watch(String url) throws Exception {
+        int subscribers = userWatchHub.getSubscriberCount();
+        MvcResult result = mockMvc.perform(get(url).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(userWatchHub.getSubscriberCount()).isEqualTo(subscribers + 1);
+        return result.getResponse();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private static UserEntity createUser(String firstName, String email) {
+        return UserEntity.builder()
+                .firstName(firstName)
+                .lastName("Watch")
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.apirest.watch;
+
+import com.apirest.exceptions.WatchLimitExceededException;
+import com.apirest.models.UserChangeType;
+import com.apirest.models.UserEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UserWatchHubTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserWatchHub userWatchHub = new UserWatchHub(new ObjectMapper().findAndRegisterModules(), meterRegistry,
+            2, 3, 10, Duration.ofMinutes(1), Duration.ofHours(1));
+
+    @BeforeEach
+    public void setUp() {
+        userWatchHub.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userWatchHub.stop();
+    }
+
+    @Test
+    @DisplayName("User changed - Pushed to its watchers and to all-users watchers only")
+    void userChanged_PushedToItsWatchersAndToAllUsersWatchersOnly() throws Exception {
+        // Arrange
+        RecordingEmitter firstUserWatcher = new RecordingEmitter();
+        RecordingEmitter secondUserWatcher = new RecordingEmitter();
+        RecordingEmitter allUsersWatcher = new RecordingEmitter();
+        userWatchHub.subscribe(Set.of(1L), firstUserWatcher);
+        userWatchHub.subscribe(Set.of(2L), secondUserWatcher);
+        userWatchHub.subscribe(null, allUsersWatcher);
+
+        // Act
+        userWatchHub.onUserChanged(new UserChangedEvent(UserChangeType.UPDATED, 1L, createUser(1L)));
+
+        // Assert
+        assertThat(firstUserWatcher.next()).contains("event:user").contains("\"userId\":1").contains("ada@example.com");
+        assertThat(allUsersWatcher.next()).contains("\"type\":\"UPDATED\"");
+        assertThat(secondUserWatcher.sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Slow subscriber - Told of the overflow and disconnected")
+    void slowSubscriber_ToldOfOverflowAndDisconnected() throws Exception {
+        // Arrange
+        CountDownLatch clientReading = new CountDownLatch(1);
+        RecordingEmitter slowWatcher = new RecordingEmitter(clientReading);
+        RecordingEmitter otherWatcher = new RecordingEmitter();
+        userWatchHub.subscribe(Set.of(1L), slowWatcher);
+        userWatchHub.subscribe(Set.of(1L), otherWatcher);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            userWatchHub.onUserChanged(new UserChangedEvent(UserChangeType.DELETED, 1L, null));
+            assertThat(otherWatcher.next()).contains("event:user");
+        }
+        clientReading.countDown();
+
+        // Assert
+        assertThat(slowWatcher.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        List<String> received = new ArrayList<>(slowWatcher.sent);
+        assertThat(received).hasSizeLessThan(4);
+        assertThat(received.get(received.size() - 1)).contains("event:overflow");
+        assertThat(meterRegistry.get("users.watch.overflows").counter().count()).isEqualTo(1);
+        assertThat(userWatchHub.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Subscription completed - User no longer watched")
+    void subscriptionCompleted_UserNoLongerWatched() {
+        // Arrange
+        RecordingEmitter watcher = new RecordingEmitter();
+        userWatchHub.subscribe(Set.of(1L, 2L), watcher);
+
+        // Act
+        watcher.complete();
+
+        // Assert
+        assertThat(userWatchHub.isWatched(1L)).isFalse();
+        assertThat(userWatchHub.watchedAmong(Set.of(1L, 2L))).isEmpty();
+        assertThat(userWatchHub.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Subscribe beyond limits - Rejected")
+    void subscribeBeyondLimits_Rejected() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            userWatchHub.subscribe(Set.of(1L), new RecordingEmitter());
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> userWatchHub.subscribe(Set.of(1L), new RecordingEmitter()))
+                .isInstanceOf(WatchLimitExceededException.class);
+        assertThatThrownBy(() -> userWatchHub.subscribe(Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L), new RecordingEmitter()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userWatchHub.subscribe(Set.of(0L), new RecordingEmitter()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static UserEntity createUser(Long id) {
+        return UserEntity.builder()
+                .id(id)
+                .firstName("Ada")
+                .lastName("Lovelace")
+                .email("ada@example.com")
+                .build();
+    }
+
+    // Stands in for the container: records what is sent and runs the completion callback itself.
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch clientReading;
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private Runnable completionCallback;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch clientReading) {
+            this.clientReading = clientReading;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                clientReading.await();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+            sent.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+
+        @Override
+        public synchronized void complete() {
+            completionCallback.run();
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String message = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(message).isNotNull();
+            return message;
+        }
+    }
+}